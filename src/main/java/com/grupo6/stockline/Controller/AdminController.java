@@ -0,0 +1,189 @@
+package com.grupo6.stockline.Controller;
+
+import com.grupo6.stockline.Service.ArchivoDatosModeloService;
+import com.grupo6.stockline.Service.ArticuloService;
+import com.grupo6.stockline.Service.BacktestPoliticaService;
+import com.grupo6.stockline.Service.CacheCGIService;
+import com.grupo6.stockline.Service.CacheSegundoNivelService;
+import com.grupo6.stockline.Service.DemandaDiariaService;
+import com.grupo6.stockline.Service.DerivaModelosService;
+import com.grupo6.stockline.Service.OptimizadorAbastecimientoService;
+import com.grupo6.stockline.Service.PronosticoLoteService;
+import com.grupo6.stockline.Service.RecalculoDiferidoService;
+import com.grupo6.stockline.Service.RecalculoModelosService;
+import com.grupo6.stockline.Service.RecalibracionDemandaService;
+import com.grupo6.stockline.Service.SimuladorInventarioService;
+import com.grupo6.stockline.Service.dto.EstadisticasCacheDTO;
+import com.grupo6.stockline.Service.dto.PoliticaInventarioDTO;
+import com.grupo6.stockline.Service.dto.ProgresoRecalculoModelosDTO;
+import com.grupo6.stockline.Service.dto.ResultadoAbastecimientoDTO;
+import com.grupo6.stockline.Service.dto.ResultadoBacktestDTO;
+import com.grupo6.stockline.Service.dto.ResultadoDerivaDTO;
+import com.grupo6.stockline.Service.dto.ResultadoRecalibracionDTO;
+import com.grupo6.stockline.Service.dto.ResultadoSimulacionDTO;
+import com.grupo6.stockline.Service.dto.ResumenBacktestDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("admin")
+public class AdminController {
+
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+    private final CacheCGIService cacheCGIService;
+    private final ArticuloService articuloService;
+    private final PronosticoLoteService pronosticoLoteService;
+    private final DemandaDiariaService demandaDiariaService;
+    private final RecalibracionDemandaService recalibracionDemandaService;
+    private final RecalculoModelosService recalculoModelosService;
+    private final RecalculoDiferidoService recalculoDiferidoService;
+    private final DerivaModelosService derivaModelosService;
+    private final OptimizadorAbastecimientoService optimizadorAbastecimientoService;
+    private final SimuladorInventarioService simuladorInventarioService;
+    private final BacktestPoliticaService backtestPoliticaService;
+    private final ArchivoDatosModeloService archivoDatosModeloService;
+
+    @GetMapping(value = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public EstadisticasCacheDTO estadisticasCache() {
+        return cacheSegundoNivelService.obtenerEstadisticas();
+    }
+
+    @PostMapping(value = "/cache/limpiar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public EstadisticasCacheDTO limpiarCache(@RequestParam(value = "region", required = false) String region) {
+        if (region == null) {
+            cacheSegundoNivelService.desalojarTodo();
+        } else {
+            cacheSegundoNivelService.desalojarRegion(region);
+        }
+        return cacheSegundoNivelService.obtenerEstadisticas();
+    }
+
+    @PostMapping(value = "/cgi/precalentar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Integer> precalentarCGI() {
+        int calculados = articuloService.precalentarCGI();
+        return Map.of("calculados", calculados, "entradas", cacheCGIService.cantidadEntradas());
+    }
+
+    @PostMapping(value = "/pronosticos/generar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Integer> generarPronosticos() {
+        return Map.of("articulos", pronosticoLoteService.generarPronosticos());
+    }
+
+    @PostMapping(value = "/recalibracion", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoRecalibracionDTO recalibrarDemanda() {
+        return recalibracionDemandaService.recalibrar();
+    }
+
+    // Corre en segundo plano: la respuesta es el progreso inicial, luego se consulta con GET
+    @PostMapping(value = "/modelos/recalcular", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ProgresoRecalculoModelosDTO recalcularModelos() {
+        return recalculoModelosService.iniciarRecalculo();
+    }
+
+    @GetMapping(value = "/modelos/recalcular", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ProgresoRecalculoModelosDTO progresoRecalculoModelos() {
+        return recalculoModelosService.obtenerProgreso();
+    }
+
+    // Recálculos diferidos (ediciones de costos de proveedor) que fallaron y todavía no se resolvieron
+    @GetMapping(value = "/modelos/recalculo-diferido/fallos", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<Long, RecalculoDiferidoService.Fallo> fallosRecalculoDiferido() {
+        return recalculoDiferidoService.obtenerFallos();
+    }
+
+    // Sólo la lista de trabajo, sin recalcular
+    @GetMapping(value = "/deriva", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoDerivaDTO detectarDeriva() {
+        return derivaModelosService.detectar();
+    }
+
+    @PostMapping(value = "/deriva/procesar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoDerivaDTO procesarDeriva() {
+        return derivaModelosService.procesar();
+    }
+
+    @GetMapping(value = "/abastecimiento", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoAbastecimientoDTO optimizarAbastecimiento(
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+        return optimizadorAbastecimientoService.optimizar(limite);
+    }
+
+    // Cambia el proveedor predeterminado de los artículos cuyo ahorro anual llega al mínimo y recalcula sus modelos
+    @PostMapping(value = "/abastecimiento/aplicar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoAbastecimientoDTO aplicarAbastecimiento(
+            @RequestParam(value = "ahorroMinimo", defaultValue = "0") double ahorroMinimo) {
+        return optimizadorAbastecimientoService.aplicar(ahorroMinimo);
+    }
+
+    @GetMapping(value = "/simulacion/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoSimulacionDTO simularArticulo(@PathVariable("id") Long id,
+                                                  @RequestParam(value = "trayectorias", defaultValue = "${stockline.simulacion.trayectorias:2000}") int trayectorias) {
+        return simuladorInventarioService.simular(id, trayectorias);
+    }
+
+    @PostMapping(value = "/simulacion", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<ResultadoSimulacionDTO> simularCatalogo(
+            @RequestParam(value = "trayectorias", defaultValue = "${stockline.simulacion.trayectorias:2000}") int trayectorias) {
+        return simuladorInventarioService.simularCatalogo(trayectorias);
+    }
+
+    // Los parámetros de política que no se envían se toman del modelo vigente del artículo
+    @GetMapping(value = "/backtest/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultadoBacktestDTO backtestArticulo(
+            @PathVariable("id") Long id,
+            @RequestParam("desde") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam("hasta") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            PoliticaInventarioDTO candidata) {
+        return backtestPoliticaService.backtest(id, desde, hasta, candidata);
+    }
+
+    @PostMapping(value = "/backtest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResumenBacktestDTO backtestCatalogo(
+            @RequestParam("desde") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam("hasta") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+        return backtestPoliticaService.backtestCatalogo(desde, hasta, limite);
+    }
+
+    @PostMapping(value = "/modelos/archivar", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Integer> archivarDatosModelo() {
+        return Map.of("archivados", archivoDatosModeloService.archivar());
+    }
+
+    // Sin fechas recorre todo el historial de ventas
+    @PostMapping(value = "/demanda-diaria/reconstruir", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Integer> reconstruirDemandaDiaria(
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        int filas = desde == null
+                ? demandaDiariaService.reconstruirTodo()
+                : demandaDiariaService.reconstruir(desde, hasta != null ? hasta : LocalDate.now().plusDays(1));
+        return Map.of("filas", filas);
+    }
+}
@@ -9,7 +9,12 @@ import com.grupo6.stockline.Service.ArticuloService;
 import com.grupo6.stockline.Service.DatosModeloInventarioService;
 import com.grupo6.stockline.Service.ServicioPrediccionDemanda;
 import com.grupo6.stockline.Service.ProveedorService;
+import com.grupo6.stockline.Service.RecalculoDiferidoService;
+import com.grupo6.stockline.Service.dto.ArticuloReponerDTO;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -18,17 +23,27 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("articulo")
 public class ArticuloController{
 
+    private static final Map<String, String> OPCIONES_ORDEN = PaginaDTO.opcionesOrden(
+            "id", "ID",
+            "nombreArticulo", "Nombre",
+            "stockActual", "Stock (menor primero)",
+            "stockActual,desc", "Stock (mayor primero)",
+            "precioVenta", "Precio (menor primero)",
+            "precioVenta,desc", "Precio (mayor primero)");
+
     private final ArticuloService articuloService;
     private final ProveedorService proveedorService;
     private final ArticuloProveedorService articuloProveedorService;
     private final DatosModeloInventarioService datosModeloInventarioService;
     private final ServicioPrediccionDemanda servicioPrediccionDemanda; // ⬅️ NUEVO
+    private final RecalculoDiferidoService recalculoDiferidoService;
 
     @GetMapping("/crear")
     public String mostrarFormularioArticulo(Model model) throws Exception{
@@ -99,18 +114,27 @@ public class ArticuloController{
     }
 
     @GetMapping("/listado")
-    public String listarArticulos(Model model) throws Exception {
-        List<Articulo> articulos = articuloService.findAll();
-        model.addAttribute("articulos", articulos);
+    public String listarArticulos(Model model,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) String orden,
+                                  @RequestParam(defaultValue = "50") int tamano) throws Exception {
+        PaginaDTO<Articulo> pagina = articuloService.findPagina(cursor, orden, tamano);
+        model.addAttribute("articulos", pagina.contenido());
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("opcionesOrden", OPCIONES_ORDEN);
         model.addAttribute("contenido", "articulos/index :: contenido");
         return "layouts/base";
     }
 
     @GetMapping("/listadoReponer")
-    public String listarArticulosReponer(Model model) throws Exception {
-        List<Articulo> articulosReponer = articuloService.listarArticulosReponer();
-        model.addAttribute("articulos", articulosReponer);
-        model.addAttribute("contenido", "articulos/index :: contenido");
+    public String listarArticulosReponer(Model model,
+                                         @RequestParam(defaultValue = "0") int pagina,
+                                         @RequestParam(defaultValue = "50") int tamano) throws Exception {
+        Page<ArticuloReponerDTO> articulosReponer = articuloService.listarArticulosReponer(
+                PageRequest.of(Math.max(pagina, 0), Math.min(Math.max(tamano, 1), 500)));
+        model.addAttribute("articulos", articulosReponer.getContent());
+        model.addAttribute("pagina", articulosReponer);
+        model.addAttribute("contenido", "articulos/listadoReponer :: contenido");
         return "layouts/base";
     }
 
@@ -181,17 +205,14 @@ public class ArticuloController{
     public String ajustarStock(@PathVariable Long id, @RequestParam("cantidad") Integer cantidad, RedirectAttributes redirectAttributes) throws Exception {
         Articulo articulo = articuloService.findById(id);
 
+        int stockPrevio = articulo.getStockActual() != null ? articulo.getStockActual() : 0;
+
         articuloService.realizarAjuste(id, cantidad);
 
-        DatosModeloInventario dato = null;
-        List<DatosModeloInventario> datos = articulo.getDatosModeloInventario();
-        for(DatosModeloInventario dmi: datos){
-            if (dmi.getFechaBaja() == null){
-                dato = dmi;
-            }
-        }
+        DatosModeloInventario dato = datosModeloInventarioService.obtenerDatosModeloInventarioActivo(id);
 
-        if(articulo.getModeloInventario() == ModeloInventario.LoteFijo && articulo.getStockActual() <= dato.getPuntoPedido()){
+        if(articulo.getModeloInventario() == ModeloInventario.LoteFijo && dato != null && dato.getPuntoPedido() != null
+                && stockPrevio - cantidad <= dato.getPuntoPedido()){
             redirectAttributes.addFlashAttribute("advertencia", "El Stock del Articulo " + id +
                     " quedo por debajo del punto de pedido");
         }
@@ -206,6 +227,9 @@ public class ArticuloController{
 
         model.addAttribute("articulo", articulo);
         model.addAttribute("estadisticasDemanda", estadisticasDemanda);
+        model.addAttribute("pronosticoNocturno", servicioPrediccionDemanda.obtenerPronosticoNocturno(id));
+        recalculoDiferidoService.obtenerFallo(id).ifPresent(fallo -> model.addAttribute("advertencia",
+                "El último recálculo del modelo de inventario falló (" + fallo.fecha().withNano(0) + "): " + fallo.motivo()));
         model.addAttribute("contenido", "articulos/detalleArticulo :: contenido");
 
         return "layouts/base";
@@ -4,8 +4,10 @@ import com.grupo6.stockline.Entities.DetalleOrdenCompra;
 import com.grupo6.stockline.Entities.OrdenCompra;
 import com.grupo6.stockline.Enum.EstadoOrdenCompra;
 import com.grupo6.stockline.Service.ArticuloService;
+import com.grupo6.stockline.Service.DatosModeloInventarioService;
 import com.grupo6.stockline.Service.OrdenCompraService;
 import com.grupo6.stockline.Service.ProveedorService;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,22 +16,34 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/ordenCompra")
 public class OrdenCompraController {
 
+    private static final Map<String, String> OPCIONES_ORDEN = PaginaDTO.opcionesOrden(
+            "id,desc", "Más recientes",
+            "id", "Más antiguas",
+            "estadoOrdenCompra", "Estado");
+
     private final OrdenCompraService ordenCompraService;
     private final ArticuloService articuloService; // Inyectado para poblar el formulario
     private final ProveedorService proveedorService; // Inyectado para poblar el formulario
+    private final DatosModeloInventarioService datosModeloInventarioService;
 
     @GetMapping("/listado")
-    public String listarOrdenesCompra(Model model) throws Exception {
-        List<OrdenCompra> ordenes = ordenCompraService.findAll();
-        model.addAttribute("listaOrdenes", ordenes);
+    public String listarOrdenesCompra(Model model,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) String orden,
+                                      @RequestParam(defaultValue = "50") int tamano) throws Exception {
+        PaginaDTO<OrdenCompra> pagina = ordenCompraService.findPagina(cursor, orden, tamano);
+        model.addAttribute("listaOrdenes", pagina.contenido());
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("opcionesOrden", OPCIONES_ORDEN);
         model.addAttribute("estados", EstadoOrdenCompra.values());
-        model.addAttribute("listaArticulos", articuloService.findAll());
+        model.addAttribute("listaArticulos", articuloService.findAllActive());
         model.addAttribute("titulo", "Listado de Órdenes de Compra");
         model.addAttribute("contenido", "compras/index :: contenido");
         return "layouts/base";
@@ -45,6 +59,7 @@ public class OrdenCompraController {
 
         model.addAttribute("ordenCompra", ordenCompra);
         model.addAttribute("listaArticulos", articuloService.findAllActive());
+        model.addAttribute("datosActivos", datosModeloInventarioService.obtenerDatosActivosPorArticulo());
         model.addAttribute("listaProveedores", proveedorService.findAllActive());
         model.addAttribute("titulo", "Crear Orden de Compra");
         model.addAttribute("isEditMode", false);
@@ -98,6 +113,7 @@ public class OrdenCompraController {
             model.addAttribute("ordenCompra", ordenCompra);
             model.addAttribute("listaProveedores", proveedorService.findAllActive());
             model.addAttribute("listaArticulos", articuloService.findAllActive()); // Para mostrar info o si se permite cambiar
+            model.addAttribute("datosActivos", datosModeloInventarioService.obtenerDatosActivosPorArticulo());
             model.addAttribute("titulo", "Modificar Orden de Compra");
             model.addAttribute("isEditMode", true);
             model.addAttribute("contenido", "compras/formOrdenCompra :: contenido");
@@ -172,5 +188,3 @@ public class OrdenCompraController {
         return "layouts/base";
     }
 }
-
-
@@ -6,6 +6,7 @@ import com.grupo6.stockline.Entities.Proveedor;
 import com.grupo6.stockline.Service.ArticuloProveedorService;
 import com.grupo6.stockline.Service.ArticuloService;
 import com.grupo6.stockline.Service.ProveedorService;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,12 +15,18 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("proveedor")
 public class ProveedorController {
 
+    private static final Map<String, String> OPCIONES_ORDEN = PaginaDTO.opcionesOrden(
+            "id", "ID",
+            "nombreProveedor", "Nombre",
+            "fechaAlta,desc", "Más recientes");
+
     private final ProveedorService proveedorService;
     private final ArticuloProveedorService articuloProveedorService;
     private final ArticuloService articuloService;
@@ -70,9 +77,14 @@ public class ProveedorController {
     }
 
     @GetMapping("/listado")
-    public String listarProveedores(Model model) throws Exception {
-        List<Proveedor> proveedores = proveedorService.findAll();
-        model.addAttribute("listaProveedores", proveedores);
+    public String listarProveedores(Model model,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) String orden,
+                                    @RequestParam(defaultValue = "50") int tamano) throws Exception {
+        PaginaDTO<Proveedor> pagina = proveedorService.findPagina(cursor, orden, tamano);
+        model.addAttribute("listaProveedores", pagina.contenido());
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("opcionesOrden", OPCIONES_ORDEN);
         model.addAttribute("contenido", "proveedores/index :: contenido");
         return "layouts/base";
     }
@@ -97,5 +109,4 @@ public class ProveedorController {
         }
         return "redirect:/proveedor/listado";
     }
-
 }
@@ -4,27 +4,47 @@ import com.grupo6.stockline.Entities.Articulo;
 import com.grupo6.stockline.Entities.DetalleVenta;
 import com.grupo6.stockline.Entities.Venta;
 import com.grupo6.stockline.Service.ArticuloService;
+import com.grupo6.stockline.Service.IngestaVentasService;
 import com.grupo6.stockline.Service.VentaService;
+import com.grupo6.stockline.Service.dto.ReporteLoteVentasDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("venta")
 public class VentaController {
 
+    private static final Map<String, String> OPCIONES_ORDEN = PaginaDTO.opcionesOrden(
+            "id,desc", "Más recientes",
+            "id", "Más antiguas",
+            "totalVenta,desc", "Total (mayor primero)",
+            "totalVenta", "Total (menor primero)");
+
     private final VentaService ventaService;
     private final ArticuloService articuloService;
+    private final IngestaVentasService ingestaVentasService;
 
     @GetMapping("/listado")
-    public String listarVentas(Model model) throws Exception {
-        List<Venta> ventas = ventaService.findAll();
-        model.addAttribute("listaVentas", ventas);
+    public String listarVentas(Model model,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(required = false) String orden,
+                               @RequestParam(defaultValue = "50") int tamano) throws Exception {
+        PaginaDTO<Venta> pagina = ventaService.findPagina(cursor, orden, tamano);
+        model.addAttribute("listaVentas", pagina.contenido());
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("opcionesOrden", OPCIONES_ORDEN);
         model.addAttribute("contenido", "ventas/index :: contenido");
         return "layouts/base";
     }
@@ -56,10 +76,30 @@ public class VentaController {
 
     @GetMapping("/{id}/detalle")
     public String verDetalleVenta(@PathVariable("id") Long id, Model model, RedirectAttributes redirectAttributes) throws Exception {
-        Venta venta = ventaService.findById(id);
+        Venta venta = ventaService.obtenerVentaConDetalle(id);
         model.addAttribute("venta", venta);
         model.addAttribute("contenido", "ventas/detalleVenta :: contenido");
         return "layouts/base";
     }
 
+    // Carga masiva desde las terminales: archivo adjunto (multipart) o el cuerpo crudo del POST
+    @PostMapping(value = "/lote", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ReporteLoteVentasDTO procesarLoteArchivo(@RequestParam("archivo") MultipartFile archivo,
+                                                    @RequestParam(value = "formato", required = false) String formato) throws Exception {
+        try (InputStream contenido = archivo.getInputStream()) {
+            return ingestaVentasService.procesarLote(contenido, formato);
+        }
+    }
+
+    @PostMapping(value = "/lote", consumes = {"application/x-ndjson", "application/jsonl", "text/csv", MediaType.TEXT_PLAIN_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ReporteLoteVentasDTO procesarLoteCuerpo(HttpServletRequest request,
+                                                   @RequestParam(value = "formato", required = false) String formato) throws Exception {
+        if (formato == null && request.getContentType() != null && request.getContentType().startsWith("text/csv")) {
+            formato = "csv";
+        }
+        return ingestaVentasService.procesarLote(request.getInputStream(), formato);
+    }
 }
@@ -3,6 +3,7 @@ package com.grupo6.stockline.Entities;
 import com.grupo6.stockline.Enum.ModeloInventario;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -18,25 +19,42 @@ public class Articulo extends Base {
     private Integer demandaArticulo;
     private String  descripcionArticulo;
     private String  nombreArticulo;
+    // Sólo se inserta: los cambios de stock van por UPDATE con delta (ventas, ajustes, compras, volcado en memoria)
+    // para que guardar el artículo nunca pise un descuento confirmado entre la lectura y el flush
+    @Column(updatable = false)
     private Integer stockActual;
     private double precioVenta;
     private LocalDateTime fechaUltimaRevision;
     private Integer tiempoRevision;
+    // Probabilidad de no quebrar stock en el ciclo (0.95 si no se indica)
+    private Double nivelServicio;
+    // Desvío estándar de la demanda diaria medido desde las ventas (lo completa la recalibración)
+    private Double desviacionDemandaDiaria;
 
     @ManyToOne
     @JoinColumn(name = "proveedor_predeterminado_id")
     private Proveedor proveedorPredeterminado;
 
     @OneToMany(mappedBy = "articulo")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DetalleOrdenCompra> detalleOrdenCompra;
 
     @OneToMany(mappedBy = "articulo")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DetalleVenta> detalleVenta;
 
     @OneToMany(mappedBy = "articulo")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<ArticuloProveedor> articuloProveedor;
 
+    // Sólo los datos vigentes: el historial cerrado no se carga con el artículo (y termina en el archivo)
     @OneToMany(mappedBy = "articulo")
+    @SQLRestriction("fecha_baja IS NULL")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DatosModeloInventario> datosModeloInventario;
 
     @Enumerated(EnumType.STRING)
@@ -1,6 +1,8 @@
 package com.grupo6.stockline.Entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 
@@ -8,6 +10,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "articuloProveedor")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +21,9 @@ public class ArticuloProveedor extends Base{
     private Integer demoraEntrega;
     private double costoCompra;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "articulo_id")
     private Articulo articulo;
 
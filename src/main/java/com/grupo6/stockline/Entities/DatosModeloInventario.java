@@ -2,9 +2,14 @@ package com.grupo6.stockline.Entities;
 
 import com.grupo6.stockline.Enum.ModeloInventario;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "datosModeloInventario")
+@Table(indexes = @Index(name = "idx_dmi_articulo_baja", columnList = "articulo_id, fecha_baja"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +20,15 @@ public class DatosModeloInventario extends Base{
     private Integer puntoPedido;
     private Integer stockSeguridad;
 
-    @ManyToOne
+    // Entradas con las que se calculó esta fila: el detector de deriva las compara con los valores actuales
+    private Integer demandaReferencia;
+    private Integer demoraEntregaReferencia;
+    private Double costoPedidoReferencia;
+    private Integer costoAlmacenamientoReferencia;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "articulo_id")
     private Articulo articulo;
 
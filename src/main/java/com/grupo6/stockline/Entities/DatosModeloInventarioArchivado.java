@@ -0,0 +1,39 @@
+package com.grupo6.stockline.Entities;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Fila cerrada de datos_modelo_inventario movida al archivo por el proceso de retención.
+// Conserva el id original y no tiene relación con el artículo: el archivo no se lee en las operaciones habituales
+@Entity
+@Table(name = "datos_modelo_inventario_archivo",
+        indexes = @Index(name = "idx_dmi_archivo_articulo", columnList = "articulo_id, fecha_baja"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatosModeloInventarioArchivado {
+
+    @Id
+    private Long id;
+    @Column(name = "articulo_id")
+    private Long idArticulo;
+
+    private Integer inventarioMaximo;
+    private Integer loteOptimo;
+    private Integer puntoPedido;
+    private Integer stockSeguridad;
+    private Integer demandaReferencia;
+    private Integer demoraEntregaReferencia;
+    private Double costoPedidoReferencia;
+    private Integer costoAlmacenamientoReferencia;
+
+    @Enumerated(EnumType.STRING)
+    private ModeloInventario modeloInventario;
+
+    private LocalDateTime fechaAlta;
+    private LocalDateTime fechaBaja;
+    private LocalDateTime fechaArchivo;
+}
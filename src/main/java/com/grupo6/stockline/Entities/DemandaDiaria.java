@@ -0,0 +1,25 @@
+package com.grupo6.stockline.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Unidades vendidas de un artículo en un día. crearVenta la mantiene con un upsert por línea;
+// las consultas de demanda leen este resumen en lugar de agrupar venta + detalle_venta.
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_demanda_articulo_fecha", columnNames = {"articulo_id", "fecha"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandaDiaria extends Base {
+
+    private LocalDate fecha;
+    private Integer cantidad;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "articulo_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Articulo articulo;
+}
@@ -0,0 +1,31 @@
+package com.grupo6.stockline.Entities;
+
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Registro inmutable de cada cambio de stock (cantidad con signo: negativa en ventas y ajustes).
+// Con el stock en memoria, "volcado" indica si la cantidad ya está aplicada en articulo.stock_actual
+// (es lo único que se modifica de la fila, y sólo lo hace el volcado)
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_movimiento_articulo", columnList = "articulo_id, id"),
+        @Index(name = "idx_movimiento_volcado", columnList = "volcado, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoStock extends Base {
+
+    private Integer cantidad;
+    private Long idReferencia;
+
+    @Enumerated(EnumType.STRING)
+    private TipoMovimientoStock tipo;
+
+    private Boolean volcado;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "articulo_id")
+    private Articulo articulo;
+}
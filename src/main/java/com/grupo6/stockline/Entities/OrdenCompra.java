@@ -20,6 +20,8 @@ public class OrdenCompra extends Base{
     private EstadoOrdenCompra estadoOrdenCompra;
 
     @OneToMany(mappedBy = "ordenCompra", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DetalleOrdenCompra> detalleOrdenCompra;
 
     @ManyToOne
@@ -0,0 +1,30 @@
+package com.grupo6.stockline.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Último pronóstico nocturno de un artículo (una fila por artículo, se reemplaza en cada corrida)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_pronostico_articulo", columnNames = "articulo_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PronosticoDemanda extends Base {
+
+    private Double demandaPromedioDiaria;
+    private Double desviacionEstandar;
+    private Integer diasConVentas;
+    private Double pronosticoDiario;
+    private Double pronostico30Dias;
+    // Modelo que produjo el pronóstico (ver Service/pronostico)
+    private String modeloPronostico;
+    private LocalDateTime fechaCalculo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "articulo_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Articulo articulo;
+}
@@ -1,6 +1,8 @@
 package com.grupo6.stockline.Entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -8,6 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proveedor")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,12 +21,18 @@ public class Proveedor extends Base{
     private String nombreProveedor;
 
     @OneToMany(mappedBy = "proveedor", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<ArticuloProveedor> articuloProveedor;
 
     @OneToMany(mappedBy = "proveedorPredeterminado")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Articulo> articuloPredeterminado;
 
     @OneToMany(mappedBy = "proveedor")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<OrdenCompra> ordenCompra;
 
     public void asociarArticuloProveedor() {
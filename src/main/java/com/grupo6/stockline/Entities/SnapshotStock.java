@@ -0,0 +1,23 @@
+package com.grupo6.stockline.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Stock de un artículo al cierre de un corte: incluye todos los movimientos con id <= idUltimoMovimiento
+@Entity
+@Table(indexes = @Index(name = "idx_snapshot_articulo_corte", columnList = "articulo_id, fecha_corte"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotStock extends Base {
+
+    private Integer stock;
+    private Long idUltimoMovimiento;
+    private LocalDateTime fechaCorte;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "articulo_id")
+    private Articulo articulo;
+}
@@ -8,6 +8,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// (fecha_alta, id): el listado por fecha y la condición keyset recorren el índice sin filesort
+@Table(indexes = @Index(name = "idx_venta_fecha_alta_id", columnList = "fecha_alta, id"))
+@NamedEntityGraph(name = "Venta.detalle",
+        attributeNodes = @NamedAttributeNode(value = "detalleVenta", subgraph = "detalle-articulo"),
+        subgraphs = @NamedSubgraph(name = "detalle-articulo", attributeNodes = @NamedAttributeNode("articulo")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,5 +21,7 @@ public class Venta extends Base{
     private double totalVenta;
 
     @OneToMany(mappedBy = "venta", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DetalleVenta> detalleVenta = new ArrayList<>();
 }
\ No newline at end of file
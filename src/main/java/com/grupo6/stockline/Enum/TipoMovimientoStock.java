@@ -0,0 +1,11 @@
+package com.grupo6.stockline.Enum;
+
+public enum TipoMovimientoStock {
+
+    VENTA,
+    AJUSTE,
+    COMPRA,
+    // Saldo con el que el artículo entra al libro (no es un cambio de stock)
+    APERTURA
+
+}
@@ -3,24 +3,39 @@ package com.grupo6.stockline.Repositories;
 import com.grupo6.stockline.Entities.Articulo;
 import com.grupo6.stockline.Entities.ArticuloProveedor;
 import com.grupo6.stockline.Entities.Proveedor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ArticuloProveedorRepository extends BaseRepository<ArticuloProveedor,Long>{
+public interface ArticuloProveedorRepository extends BaseRepository<ArticuloProveedor,Long>, ArticuloProveedorRepositoryCustom {
 
+    // Listado de artículos del proveedor: trae el artículo y su predeterminado en la misma consulta
+    @EntityGraph(attributePaths = {"proveedor", "articulo", "articulo.proveedorPredeterminado"})
     List<ArticuloProveedor> findByProveedorId(Long proveedorId);
 
     long countByArticuloIdAndFechaBajaIsNull(Long articuloId);
 
-    @Query("SELECT ap FROM ArticuloProveedor ap WHERE ap.proveedor.id = :proveedorId AND ap.articulo.id = :articuloId")
+    // Asociación vigente: una dada de baja y vuelta a crear deja dos filas para el mismo par
+    @Query("SELECT ap FROM ArticuloProveedor ap WHERE ap.proveedor.id = :proveedorId AND ap.articulo.id = :articuloId " +
+            "AND ap.fechaBaja IS NULL")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     ArticuloProveedor findByProveedorAndArticulo(@Param("proveedorId") Long proveedorId, @Param("articuloId") Long articuloId);
 
+    @EntityGraph(attributePaths = {"articulo", "proveedor"})
     List<ArticuloProveedor> findByArticuloId(Long id);
 
+    // Asociación con el proveedor predeterminado de cada artículo activo
+    @Query("SELECT ap FROM ArticuloProveedor ap JOIN FETCH ap.articulo a " +
+            "WHERE a.fechaBaja IS NULL AND ap.fechaBaja IS NULL AND ap.proveedor = a.proveedorPredeterminado")
+    List<ArticuloProveedor> obtenerAsociacionesPredeterminadas();
+
     boolean existsByProveedorAndArticuloAndFechaBajaIsNull(Proveedor proveedor, Articulo articulo);
 
 }
@@ -0,0 +1,14 @@
+package com.grupo6.stockline.Repositories;
+
+public interface ArticuloProveedorRepositoryCustom {
+
+    interface ParConsumidor {
+        void aceptar(long idArticulo, long idProveedor, double costoCompra, double costoPedido, int demoraEntrega,
+                     int demandaArticulo, int costoAlmacenamiento, long idProveedorPredeterminado);
+    }
+
+    // Recorre en streaming todos los pares artículo-proveedor activos, ordenados por artículo.
+    // Los nulos llegan como 0 (idProveedorPredeterminado incluido)
+    void recorrerParesActivos(ParConsumidor consumidor);
+
+}
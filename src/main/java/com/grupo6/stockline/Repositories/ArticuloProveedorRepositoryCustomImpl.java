@@ -0,0 +1,39 @@
+package com.grupo6.stockline.Repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+
+public class ArticuloProveedorRepositoryCustomImpl implements ArticuloProveedorRepositoryCustom {
+
+    private static final String PARES_ACTIVOS =
+            "SELECT ap.articulo_id, ap.proveedor_id, ap.costo_compra, ap.costo_pedido, ap.demora_entrega, " +
+            "a.demanda_articulo, a.costo_almacenamiento, a.proveedor_predeterminado_id " +
+            "FROM articulo_proveedor ap JOIN articulo a ON a.id = ap.articulo_id " +
+            "JOIN proveedor p ON p.id = ap.proveedor_id " +
+            "WHERE ap.fecha_baja IS NULL AND a.fecha_baja IS NULL AND p.fecha_baja IS NULL " +
+            "ORDER BY ap.articulo_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanoLectura;
+
+    public ArticuloProveedorRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                                 @Value("${stockline.abastecimiento.tamano-lectura:1000}") int tamanoLectura) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanoLectura = tamanoLectura;
+    }
+
+    @Override
+    public void recorrerParesActivos(ParConsumidor consumidor) {
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(PARES_ACTIVOS);
+            ps.setFetchSize(tamanoLectura);
+            return ps;
+        }, rs -> {
+            // getInt/getLong/getDouble devuelven 0 para NULL
+            consumidor.aceptar(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getDouble(4), rs.getInt(5),
+                    rs.getInt(6), rs.getInt(7), rs.getLong(8));
+        });
+    }
+}
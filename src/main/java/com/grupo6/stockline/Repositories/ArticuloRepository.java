@@ -1,16 +1,128 @@
 package com.grupo6.stockline.Repositories;
 
 import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Enum.EstadoOrdenCompra;
 import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Service.dto.ArticuloReponerDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ArticuloRepository extends BaseRepository<Articulo,Long> {
+public interface ArticuloRepository extends BaseRepository<Articulo,Long>, ArticuloRepositoryCustom {
+
+    interface StockArticuloProyeccion {
+        Long getId();
+        Integer getStockActual();
+    }
+
+    interface DatosRecalibracionProyeccion {
+        Long getId();
+        LocalDateTime getFechaAlta();
+        Integer getDemandaArticulo();
+        Double getDesviacionDemandaDiaria();
+    }
+
+    interface DatosCalculoModeloProyeccion {
+        Long getId();
+        ModeloInventario getModeloInventario();
+        Long getIdProveedorPredeterminado();
+        Integer getDemandaArticulo();
+        Integer getCostoAlmacenamiento();
+        Integer getTiempoRevision();
+        Double getNivelServicio();
+        Double getDesviacionDemandaDiaria();
+        Long getIdArticuloProveedor();
+        Double getCostoPedido();
+        Integer getDemoraEntrega();
+    }
+
+    interface StockSeguridadProyeccion {
+        Long getId();
+        Integer getStockActual();
+        Integer getStockSeguridad();
+    }
 
     boolean existsByProveedorPredeterminadoId(Long proveedorId);
 
     List<Articulo> findByFechaBajaIsNullAndModeloInventario(ModeloInventario modeloInventario);
 
+    // Descuento atómico: sólo actualiza si alcanza el stock. Devuelve 0 si no se descontó nada.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Articulo a SET a.stockActual = a.stockActual - :cantidad WHERE a.id = :id AND a.stockActual >= :cantidad")
+    int descontarStock(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    @Query("SELECT a.stockActual FROM Articulo a WHERE a.id = :id")
+    Integer obtenerStockActual(@Param("id") Long id);
+
+    @Query("SELECT a.id AS id, a.stockActual AS stockActual FROM Articulo a WHERE a.fechaBaja IS NULL")
+    List<StockArticuloProyeccion> obtenerStockArticulosActivos();
+
+    // Stock en la base más los movimientos confirmados que el stock en memoria todavía no volcó.
+    // Una sola sentencia: el saldo y los pendientes salen de la misma lectura consistente
+    String STOCK_CON_NO_VOLCADOS = "SELECT a.id AS id, COALESCE(a.stockActual, 0) + COALESCE((SELECT SUM(m.cantidad) " +
+            "FROM MovimientoStock m WHERE m.articulo.id = a.id AND m.volcado = false), 0) AS stockActual FROM Articulo a ";
+
+    @Query(STOCK_CON_NO_VOLCADOS + "WHERE a.fechaBaja IS NULL")
+    List<StockArticuloProyeccion> obtenerStockConNoVolcadosActivos();
+
+    @Query(STOCK_CON_NO_VOLCADOS + "WHERE a.id = :id")
+    Optional<StockArticuloProyeccion> obtenerStockConNoVolcados(@Param("id") Long id);
+
+    @Query("SELECT a.id AS id, a.fechaAlta AS fechaAlta, a.demandaArticulo AS demandaArticulo, " +
+            "a.desviacionDemandaDiaria AS desviacionDemandaDiaria FROM Articulo a WHERE a.fechaBaja IS NULL")
+    List<DatosRecalibracionProyeccion> obtenerDatosRecalibracion();
+
+    // Entradas del cálculo de modelo de los artículos activos con modelo, junto a la asociación vigente con su proveedor predeterminado
+    String DATOS_CALCULO_MODELO = "SELECT a.id AS id, a.modeloInventario AS modeloInventario, a.proveedorPredeterminado.id AS idProveedorPredeterminado, " +
+            "a.demandaArticulo AS demandaArticulo, a.costoAlmacenamiento AS costoAlmacenamiento, a.tiempoRevision AS tiempoRevision, " +
+            "a.nivelServicio AS nivelServicio, a.desviacionDemandaDiaria AS desviacionDemandaDiaria, " +
+            "ap.id AS idArticuloProveedor, ap.costoPedido AS costoPedido, ap.demoraEntrega AS demoraEntrega " +
+            "FROM Articulo a LEFT JOIN ArticuloProveedor ap " +
+            "ON ap.articulo.id = a.id AND ap.proveedor.id = a.proveedorPredeterminado.id AND ap.fechaBaja IS NULL " +
+            "WHERE a.fechaBaja IS NULL AND a.modeloInventario IS NOT NULL ";
+
+    @Query(DATOS_CALCULO_MODELO + "ORDER BY a.id")
+    List<DatosCalculoModeloProyeccion> obtenerDatosCalculoModelo();
+
+    @Query(DATOS_CALCULO_MODELO + "AND a.id IN :ids ORDER BY a.id")
+    List<DatosCalculoModeloProyeccion> obtenerDatosCalculoModelo(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM Articulo a WHERE a.fechaBaja IS NULL ORDER BY a.id")
+    List<Long> obtenerIdsActivos();
+
+    @Query("SELECT a.id AS id, a.stockActual AS stockActual, d.stockSeguridad AS stockSeguridad " +
+            "FROM DatosModeloInventario d JOIN d.articulo a WHERE d.fechaBaja IS NULL AND a.fechaBaja IS NULL")
+    List<StockSeguridadProyeccion> obtenerStockSeguridadVigente();
+
+    // Lote Fijo con stock en o por debajo del punto de pedido vigente y sin orden de compra activa
+    @Query(value = "SELECT new com.grupo6.stockline.Service.dto.ArticuloReponerDTO(" +
+            "a.id, a.nombreArticulo, a.descripcionArticulo, a.precioVenta, a.stockActual, a.modeloInventario, " +
+            "p.nombreProveedor, d.puntoPedido, d.loteOptimo) " +
+            "FROM DatosModeloInventario d JOIN d.articulo a LEFT JOIN a.proveedorPredeterminado p " +
+            "WHERE d.fechaBaja IS NULL AND a.fechaBaja IS NULL " +
+            "AND a.modeloInventario = com.grupo6.stockline.Enum.ModeloInventario.LoteFijo " +
+            "AND a.stockActual <= d.puntoPedido " +
+            "AND NOT EXISTS (SELECT 1 FROM DetalleOrdenCompra doc " +
+            "WHERE doc.articulo = a AND doc.ordenCompra.estadoOrdenCompra IN :estadosActivos) " +
+            "ORDER BY a.id",
+            countQuery = "SELECT COUNT(d) FROM DatosModeloInventario d JOIN d.articulo a " +
+            "WHERE d.fechaBaja IS NULL AND a.fechaBaja IS NULL " +
+            "AND a.modeloInventario = com.grupo6.stockline.Enum.ModeloInventario.LoteFijo " +
+            "AND a.stockActual <= d.puntoPedido " +
+            "AND NOT EXISTS (SELECT 1 FROM DetalleOrdenCompra doc " +
+            "WHERE doc.articulo = a AND doc.ordenCompra.estadoOrdenCompra IN :estadosActivos)")
+    Page<ArticuloReponerDTO> listarArticulosReponer(@Param("estadosActivos") Collection<EstadoOrdenCompra> estadosActivos,
+                                                    Pageable pageable);
+
 }
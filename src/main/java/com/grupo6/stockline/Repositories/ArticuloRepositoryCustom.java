@@ -0,0 +1,24 @@
+package com.grupo6.stockline.Repositories;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ArticuloRepositoryCustom {
+
+    // Mismo descuento condicional que descontarStock, enviado como un único lote JDBC.
+    // Devuelve, por artículo, las filas afectadas (0 = stock insuficiente o artículo inexistente).
+    Map<Long, Integer> descontarStockEnLote(Map<Long, Integer> cantidadPorArticulo);
+
+    // Suma (o resta, si es negativo) el delta de cada artículo en un único lote JDBC
+    void aplicarDeltasStock(Map<Long, Integer> deltaPorArticulo);
+
+    // Demanda anual y desvío diario recalibrados, en un único lote JDBC
+    void actualizarDemandaEnLote(List<DemandaRecalibrada> demandas);
+
+    // Proveedor predeterminado por artículo (id artículo -> id proveedor), en un único lote JDBC
+    void actualizarProveedorPredeterminadoEnLote(Map<Long, Long> proveedorPorArticulo);
+
+    record DemandaRecalibrada(long idArticulo, int demandaAnual, double desviacionDiaria) {
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.grupo6.stockline.Repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ArticuloRepositoryCustomImpl implements ArticuloRepositoryCustom {
+
+    private static final String DESCONTAR_STOCK =
+            "UPDATE articulo SET stock_actual = stock_actual - ? WHERE id = ? AND stock_actual >= ?";
+
+    private static final String APLICAR_DELTA =
+            "UPDATE articulo SET stock_actual = stock_actual + ? WHERE id = ?";
+
+    private static final String ACTUALIZAR_DEMANDA =
+            "UPDATE articulo SET demanda_articulo = ?, desviacion_demanda_diaria = ? WHERE id = ?";
+
+    private static final String ACTUALIZAR_PROVEEDOR_PREDETERMINADO =
+            "UPDATE articulo SET proveedor_predeterminado_id = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArticuloRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, Integer> descontarStockEnLote(Map<Long, Integer> cantidadPorArticulo) {
+        Map<Long, Integer> resultado = new LinkedHashMap<>();
+        if (cantidadPorArticulo.isEmpty()) {
+            return resultado;
+        }
+
+        List<Map.Entry<Long, Integer>> pedidos = new ArrayList<>(cantidadPorArticulo.entrySet());
+        int[][] filas = jdbcTemplate.batchUpdate(DESCONTAR_STOCK, pedidos, pedidos.size(), (ps, pedido) -> {
+            ps.setInt(1, pedido.getValue());
+            ps.setLong(2, pedido.getKey());
+            ps.setInt(3, pedido.getValue());
+        });
+
+        for (int i = 0; i < pedidos.size(); i++) {
+            resultado.put(pedidos.get(i).getKey(), filas[0][i]);
+        }
+        return resultado;
+    }
+
+    @Override
+    public void aplicarDeltasStock(Map<Long, Integer> deltaPorArticulo) {
+        if (deltaPorArticulo.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> deltas = new ArrayList<>(deltaPorArticulo.entrySet());
+        jdbcTemplate.batchUpdate(APLICAR_DELTA, deltas, deltas.size(), (ps, delta) -> {
+            ps.setInt(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+    }
+
+    @Override
+    public void actualizarDemandaEnLote(List<DemandaRecalibrada> demandas) {
+        if (demandas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ACTUALIZAR_DEMANDA, demandas, 500, (ps, demanda) -> {
+            ps.setInt(1, demanda.demandaAnual());
+            ps.setDouble(2, demanda.desviacionDiaria());
+            ps.setLong(3, demanda.idArticulo());
+        });
+    }
+
+    @Override
+    public void actualizarProveedorPredeterminadoEnLote(Map<Long, Long> proveedorPorArticulo) {
+        if (proveedorPorArticulo.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> cambios = new ArrayList<>(proveedorPorArticulo.entrySet());
+        jdbcTemplate.batchUpdate(ACTUALIZAR_PROVEEDOR_PREDETERMINADO, cambios, 500, (ps, cambio) -> {
+            ps.setLong(1, cambio.getValue());
+            ps.setLong(2, cambio.getKey());
+        });
+    }
+}
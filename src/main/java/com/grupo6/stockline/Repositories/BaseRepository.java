@@ -2,6 +2,7 @@ package com.grupo6.stockline.Repositories;
 
 import com.grupo6.stockline.Entities.Base;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -11,7 +12,7 @@ import java.io.Serializable;
 import java.util.List;
 
 @NoRepositoryBean
-public interface BaseRepository<E extends Base, ID extends Serializable> extends JpaRepository<E,ID> {
+public interface BaseRepository<E extends Base, ID extends Serializable> extends JpaRepository<E,ID>, JpaSpecificationExecutor<E> {
 
     @Modifying
     @Transactional
@@ -2,13 +2,87 @@ package com.grupo6.stockline.Repositories;
 
 import com.grupo6.stockline.Entities.Articulo;
 import com.grupo6.stockline.Entities.DatosModeloInventario;
+import com.grupo6.stockline.Enum.ModeloInventario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DatosModeloInventarioRepository extends BaseRepository<DatosModeloInventario, Long>{
+public interface DatosModeloInventarioRepository extends BaseRepository<DatosModeloInventario, Long>, DatosModeloInventarioRepositoryCustom {
+
+    interface EntradasModeloProyeccion {
+        Long getIdArticulo();
+        Integer getDemandaArticulo();
+        Integer getDemandaReferencia();
+        Integer getDemoraEntregaReferencia();
+        Double getCostoPedidoReferencia();
+        Integer getCostoAlmacenamientoReferencia();
+        Integer getCostoAlmacenamiento();
+        Integer getDemoraEntrega();
+        Double getCostoPedido();
+    }
+
     Optional<DatosModeloInventario> findByArticulo(Articulo articulo);
 
     DatosModeloInventario findByArticulo_FechaBaja(Articulo articulo);
+
+    // Fila vigente del artículo; resuelta con el índice (articulo_id, fecha_baja) sin recorrer el historial
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<DatosModeloInventario> findFirstByArticuloIdAndFechaBajaIsNullOrderByIdDesc(Long idArticulo);
+
+    interface ParametrosSimulacionProyeccion {
+        Long getIdArticulo();
+        LocalDateTime getFechaAltaArticulo();
+        ModeloInventario getModeloInventario();
+        Integer getLoteOptimo();
+        Integer getPuntoPedido();
+        Integer getInventarioMaximo();
+        Integer getTiempoRevision();
+        Integer getCostoAlmacenamiento();
+        Double getCostoPedido();
+        Double getCostoCompra();
+        Integer getDemoraEntrega();
+    }
+
+    String PARAMETROS_SIMULACION = "SELECT a.id AS idArticulo, a.fechaAlta AS fechaAltaArticulo, " +
+            "d.modeloInventario AS modeloInventario, d.loteOptimo AS loteOptimo, d.puntoPedido AS puntoPedido, " +
+            "d.inventarioMaximo AS inventarioMaximo, a.tiempoRevision AS tiempoRevision, " +
+            "a.costoAlmacenamiento AS costoAlmacenamiento, ap.costoPedido AS costoPedido, ap.costoCompra AS costoCompra, " +
+            "ap.demoraEntrega AS demoraEntrega " +
+            "FROM DatosModeloInventario d JOIN d.articulo a JOIN ArticuloProveedor ap " +
+            "ON ap.articulo.id = a.id AND ap.proveedor.id = a.proveedorPredeterminado.id AND ap.fechaBaja IS NULL " +
+            "WHERE d.fechaBaja IS NULL AND a.fechaBaja IS NULL AND d.modeloInventario IS NOT NULL";
+
+    // Modelo vigente de cada artículo activo con los costos y la demora de su proveedor predeterminado
+    @Query(PARAMETROS_SIMULACION + " ORDER BY a.id")
+    List<ParametrosSimulacionProyeccion> obtenerParametrosSimulacion();
+
+    @Query(PARAMETROS_SIMULACION + " AND a.id = :idArticulo")
+    Optional<ParametrosSimulacionProyeccion> obtenerParametrosSimulacion(@Param("idArticulo") Long idArticulo);
+
+    @Query("SELECT d FROM DatosModeloInventario d JOIN FETCH d.articulo WHERE d.fechaBaja IS NULL")
+    List<DatosModeloInventario> obtenerDatosActivos();
+
+    // Entradas con que se calculó cada modelo vigente junto a los valores actuales del artículo y su proveedor predeterminado
+    @Query("SELECT a.id AS idArticulo, a.demandaArticulo AS demandaArticulo, d.demandaReferencia AS demandaReferencia, " +
+            "d.demoraEntregaReferencia AS demoraEntregaReferencia, d.costoPedidoReferencia AS costoPedidoReferencia, " +
+            "d.costoAlmacenamientoReferencia AS costoAlmacenamientoReferencia, a.costoAlmacenamiento AS costoAlmacenamiento, " +
+            "ap.demoraEntrega AS demoraEntrega, ap.costoPedido AS costoPedido " +
+            "FROM DatosModeloInventario d JOIN d.articulo a LEFT JOIN ArticuloProveedor ap " +
+            "ON ap.articulo.id = a.id AND ap.proveedor.id = a.proveedorPredeterminado.id AND ap.fechaBaja IS NULL " +
+            "WHERE d.fechaBaja IS NULL AND a.fechaBaja IS NULL AND a.modeloInventario IS NOT NULL")
+    List<EntradasModeloProyeccion> obtenerEntradasModelosVigentes();
+
+    // Cierra los datos vigentes del artículo antes de insertar los nuevos
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DatosModeloInventario d SET d.fechaBaja = :fechaBaja WHERE d.articulo.id = :idArticulo AND d.fechaBaja IS NULL")
+    int cerrarDatosActivos(@Param("idArticulo") Long idArticulo, @Param("fechaBaja") LocalDateTime fechaBaja);
 }
@@ -0,0 +1,19 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Service.dto.ModeloInventarioLoteDTO;
+
+import java.time.LocalDateTime;
+
+public interface DatosModeloInventarioRepositoryCustom {
+
+    // Cierra los datos vigentes e inserta los nuevos de las posiciones [desde, hasta) del lote, con dos lotes JDBC
+    void reemplazarDatosActivos(ModeloInventarioLoteDTO lote, int desde, int hasta);
+
+    // Mueve al archivo hasta "tamano" filas cerradas antes de "limite" con id mayor a desdeId (recorrido por id)
+    TramoArchivado archivarTramo(long desdeId, LocalDateTime limite, int tamano, LocalDateTime fechaArchivo);
+
+    // ultimoId es el último id del tramo (desde donde sigue el próximo), o -1 si no quedaban filas
+    record TramoArchivado(int filas, long ultimoId) {
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Service.dto.ModeloInventarioLoteDTO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+public class DatosModeloInventarioRepositoryCustomImpl implements DatosModeloInventarioRepositoryCustom {
+
+    private static final String CERRAR_DATOS_ACTIVOS =
+            "UPDATE datos_modelo_inventario SET fecha_baja = ? WHERE articulo_id = ? AND fecha_baja IS NULL";
+    private static final String INSERT_DATOS =
+            "INSERT INTO datos_modelo_inventario (articulo_id, modelo_inventario, lote_optimo, punto_pedido, " +
+            "stock_seguridad, inventario_maximo, demanda_referencia, demora_entrega_referencia, costo_pedido_referencia, " +
+            "costo_almacenamiento_referencia, fecha_alta) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COLUMNAS = "id, articulo_id, modelo_inventario, lote_optimo, punto_pedido, stock_seguridad, " +
+            "inventario_maximo, demanda_referencia, demora_entrega_referencia, costo_pedido_referencia, " +
+            "costo_almacenamiento_referencia, fecha_alta, fecha_baja";
+    private static final String FIN_TRAMO_ARCHIVO =
+            "SELECT MAX(id) FROM (SELECT id FROM datos_modelo_inventario WHERE id > ? AND fecha_baja < ? ORDER BY id LIMIT ?) t";
+    // Las filas cerradas antes del límite ya no cambian: el mismo filtro vale para copiar y para borrar
+    private static final String COPIAR_TRAMO_ARCHIVO =
+            "INSERT INTO datos_modelo_inventario_archivo (" + COLUMNAS + ", fecha_archivo) " +
+            "SELECT " + COLUMNAS + ", ? FROM datos_modelo_inventario WHERE id > ? AND id <= ? AND fecha_baja < ?";
+    private static final String BORRAR_TRAMO_ARCHIVO =
+            "DELETE FROM datos_modelo_inventario WHERE id > ? AND id <= ? AND fecha_baja < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatosModeloInventarioRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void reemplazarDatosActivos(ModeloInventarioLoteDTO lote, int desde, int hasta) {
+        Timestamp fechaCalculo = Timestamp.valueOf(lote.fechaCalculo());
+        int cantidad = hasta - desde;
+        if (cantidad <= 0) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(CERRAR_DATOS_ACTIVOS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int j) throws SQLException {
+                ps.setTimestamp(1, fechaCalculo);
+                ps.setLong(2, lote.idsArticulo()[desde + j]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cantidad;
+            }
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_DATOS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int j) throws SQLException {
+                int i = desde + j;
+                boolean loteFijo = lote.modeloInventario()[i] == ModeloInventario.LoteFijo;
+                ps.setLong(1, lote.idsArticulo()[i]);
+                ps.setString(2, lote.modeloInventario()[i].name());
+                if (loteFijo) {
+                    ps.setInt(3, lote.loteOptimo()[i]);
+                    ps.setInt(4, lote.puntoPedido()[i]);
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setInt(5, lote.stockSeguridad()[i]);
+                if (loteFijo) {
+                    ps.setNull(6, Types.INTEGER);
+                } else {
+                    ps.setInt(6, lote.inventarioMaximo()[i]);
+                }
+                ps.setInt(7, lote.demandaReferencia()[i]);
+                ps.setInt(8, lote.demoraEntregaReferencia()[i]);
+                ps.setDouble(9, lote.costoPedidoReferencia()[i]);
+                ps.setInt(10, lote.costoAlmacenamientoReferencia()[i]);
+                ps.setTimestamp(11, fechaCalculo);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cantidad;
+            }
+        });
+    }
+
+    @Override
+    public TramoArchivado archivarTramo(long desdeId, LocalDateTime limite, int tamano, LocalDateTime fechaArchivo) {
+        Timestamp fechaLimite = Timestamp.valueOf(limite);
+        Long hastaId = jdbcTemplate.queryForObject(FIN_TRAMO_ARCHIVO, Long.class, desdeId, fechaLimite, tamano);
+        if (hastaId == null) {
+            return new TramoArchivado(0, -1);
+        }
+        jdbcTemplate.update(COPIAR_TRAMO_ARCHIVO, Timestamp.valueOf(fechaArchivo), desdeId, hastaId, fechaLimite);
+        int filas = jdbcTemplate.update(BORRAR_TRAMO_ARCHIVO, desdeId, hastaId, fechaLimite);
+        return new TramoArchivado(filas, hastaId);
+    }
+}
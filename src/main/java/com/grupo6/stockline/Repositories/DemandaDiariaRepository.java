@@ -0,0 +1,30 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.DemandaDiaria;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DemandaDiariaRepository extends BaseRepository<DemandaDiaria, Long>, DemandaDiariaRepositoryCustom {
+
+    interface DemandaPorDiaProyeccion {
+        LocalDate getFecha();
+        Integer getCantidad();
+    }
+
+    // Rango de días de un artículo sobre el índice único (articulo_id, fecha)
+    @Query("SELECT d.fecha AS fecha, d.cantidad AS cantidad FROM DemandaDiaria d " +
+            "WHERE d.articulo.id = :idArticulo AND d.fecha >= :desde AND d.fecha < :hasta ORDER BY d.fecha")
+    List<DemandaPorDiaProyeccion> obtenerDemandaDiaria(@Param("idArticulo") Long idArticulo,
+                                                       @Param("desde") LocalDate desde,
+                                                       @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT MIN(v.fechaAlta) FROM Venta v")
+    LocalDateTime obtenerFechaPrimeraVenta();
+
+}
@@ -0,0 +1,28 @@
+package com.grupo6.stockline.Repositories;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface DemandaDiariaRepositoryCustom {
+
+    interface DemandaDiariaConsumidor {
+        void aceptar(long idArticulo, LocalDate fecha, long cantidad);
+    }
+
+    interface TotalesConsumidor {
+        void aceptar(long idArticulo, long suma, long sumaCuadrados);
+    }
+
+    // Suma las cantidades al día indicado, creando las filas que falten
+    void sumarEnLote(LocalDate fecha, Map<Long, Integer> cantidadPorArticulo);
+
+    // Recalcula el resumen de [desde, hasta) a partir de las ventas; devuelve las filas generadas
+    int reconstruirRango(LocalDate desde, LocalDate hasta);
+
+    // Demanda diaria de todos los artículos en [desde, hasta), ordenada por artículo y fecha, leída en streaming
+    void recorrerDemandaDiaria(LocalDate desde, LocalDate hasta, DemandaDiariaConsumidor consumidor);
+
+    // Suma y suma de cuadrados de la demanda diaria de cada artículo en [desde, hasta), en una sola pasada
+    void recorrerTotalesPorArticulo(LocalDate desde, LocalDate hasta, TotalesConsumidor consumidor);
+
+}
@@ -0,0 +1,98 @@
+package com.grupo6.stockline.Repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class DemandaDiariaRepositoryCustomImpl implements DemandaDiariaRepositoryCustom {
+
+    private static final String UPSERT_DEMANDA =
+            "INSERT INTO demanda_diaria (articulo_id, fecha, cantidad, fecha_alta) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE cantidad = cantidad + VALUES(cantidad)";
+    private static final String BORRAR_RANGO =
+            "DELETE FROM demanda_diaria WHERE fecha >= ? AND fecha < ?";
+    private static final String INSERTAR_RANGO =
+            "INSERT INTO demanda_diaria (articulo_id, fecha, cantidad, fecha_alta) " +
+            "SELECT d.articulo_id, CAST(v.fecha_alta AS DATE), SUM(d.cantidad), ? " +
+            "FROM venta v JOIN detalle_venta d ON d.venta_id = v.id " +
+            "WHERE v.fecha_alta >= ? AND v.fecha_alta < ? " +
+            "GROUP BY d.articulo_id, CAST(v.fecha_alta AS DATE)";
+    private static final String DEMANDA_DIARIA =
+            "SELECT articulo_id, fecha, cantidad FROM demanda_diaria " +
+            "WHERE fecha >= ? AND fecha < ? ORDER BY articulo_id, fecha";
+
+    private static final String TOTALES_POR_ARTICULO =
+            "SELECT articulo_id, SUM(cantidad), SUM(cantidad * cantidad) FROM demanda_diaria " +
+            "WHERE fecha >= ? AND fecha < ? GROUP BY articulo_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanoLectura;
+
+    public DemandaDiariaRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                             @Value("${stockline.pronostico-lote.tamano-lectura:1000}") int tamanoLectura) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanoLectura = tamanoLectura;
+    }
+
+    @Override
+    public void sumarEnLote(LocalDate fecha, Map<Long, Integer> cantidadPorArticulo) {
+        if (cantidadPorArticulo.isEmpty()) {
+            return;
+        }
+        // Siempre en orden de artículo: dos ventas concurrentes toman los bloqueos de fila en el mismo orden
+        List<Map.Entry<Long, Integer>> lineas = new ArrayList<>(new TreeMap<>(cantidadPorArticulo).entrySet());
+        Date dia = Date.valueOf(fecha);
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_DEMANDA, lineas, lineas.size(), (ps, linea) -> {
+            ps.setLong(1, linea.getKey());
+            ps.setDate(2, dia);
+            ps.setInt(3, linea.getValue());
+            ps.setTimestamp(4, ahora);
+        });
+    }
+
+    @Override
+    public int reconstruirRango(LocalDate desde, LocalDate hasta) {
+        jdbcTemplate.update(BORRAR_RANGO, Date.valueOf(desde), Date.valueOf(hasta));
+        return jdbcTemplate.update(INSERTAR_RANGO,
+                Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(desde.atStartOfDay()),
+                Timestamp.valueOf(hasta.atStartOfDay()));
+    }
+
+    @Override
+    public void recorrerDemandaDiaria(LocalDate desde, LocalDate hasta, DemandaDiariaConsumidor consumidor) {
+        // Con fetch size el driver trae el resultado por tandas (en MySQL requiere useCursorFetch=true)
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(DEMANDA_DIARIA);
+            ps.setFetchSize(tamanoLectura);
+            ps.setDate(1, Date.valueOf(desde));
+            ps.setDate(2, Date.valueOf(hasta));
+            return ps;
+        }, rs -> {
+            consumidor.aceptar(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getLong(3));
+        });
+    }
+
+    @Override
+    public void recorrerTotalesPorArticulo(LocalDate desde, LocalDate hasta, TotalesConsumidor consumidor) {
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(TOTALES_POR_ARTICULO);
+            ps.setFetchSize(tamanoLectura);
+            ps.setDate(1, Date.valueOf(desde));
+            ps.setDate(2, Date.valueOf(hasta));
+            return ps;
+        }, rs -> {
+            consumidor.aceptar(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        });
+    }
+}
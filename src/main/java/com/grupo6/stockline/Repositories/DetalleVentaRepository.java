@@ -4,5 +4,5 @@ import com.grupo6.stockline.Entities.DetalleVenta;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DetalleVentaRepository extends BaseRepository<DetalleVenta, Long> {
+public interface DetalleVentaRepository extends BaseRepository<DetalleVenta, Long>, DetalleVentaRepositoryCustom {
 }
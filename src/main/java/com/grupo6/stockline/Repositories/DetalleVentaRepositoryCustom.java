@@ -0,0 +1,21 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.DetalleVenta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DetalleVentaRepositoryCustom {
+
+    interface LineaVentaConsumidor {
+        void aceptar(long idArticulo, LocalDateTime fechaVenta, int cantidad);
+    }
+
+    // Inserta los detalles en un único lote JDBC (IDENTITY impide el batching de Hibernate)
+    void insertarEnLote(List<DetalleVenta> detalles);
+
+    // Recorre en streaming las líneas vendidas en [desde, hasta) en orden de fecha de venta;
+    // con idArticulo null incluye todo el catálogo
+    void recorrerLineasEnOrden(LocalDateTime desde, LocalDateTime hasta, Long idArticulo, LineaVentaConsumidor consumidor);
+
+}
@@ -0,0 +1,62 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.DetalleVenta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DetalleVentaRepositoryCustomImpl implements DetalleVentaRepositoryCustom {
+
+    private static final String INSERT_DETALLE =
+            "INSERT INTO detalle_venta (cantidad, sub_total, venta_id, articulo_id, fecha_alta) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LINEAS_EN_ORDEN =
+            "SELECT d.articulo_id, v.fecha_alta, d.cantidad FROM venta v JOIN detalle_venta d ON d.venta_id = v.id " +
+            "WHERE v.fecha_alta >= ? AND v.fecha_alta < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanoLectura;
+
+    public DetalleVentaRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                            @Value("${stockline.backtest.tamano-lectura:1000}") int tamanoLectura) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanoLectura = tamanoLectura;
+    }
+
+    @Override
+    public void insertarEnLote(List<DetalleVenta> detalles) {
+        if (detalles.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_DETALLE, detalles, detalles.size(), (ps, detalle) -> {
+            LocalDateTime fechaAlta = detalle.getFechaAlta() != null ? detalle.getFechaAlta() : LocalDateTime.now();
+            ps.setInt(1, detalle.getCantidad());
+            ps.setDouble(2, detalle.getSubTotal());
+            ps.setLong(3, detalle.getVenta().getId());
+            ps.setLong(4, detalle.getArticulo().getId());
+            ps.setTimestamp(5, Timestamp.valueOf(fechaAlta));
+        });
+    }
+
+    @Override
+    public void recorrerLineasEnOrden(LocalDateTime desde, LocalDateTime hasta, Long idArticulo,
+                                      LineaVentaConsumidor consumidor) {
+        String consulta = LINEAS_EN_ORDEN + (idArticulo != null ? " AND d.articulo_id = ?" : "") + " ORDER BY v.fecha_alta";
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(consulta);
+            ps.setFetchSize(tamanoLectura);
+            ps.setTimestamp(1, Timestamp.valueOf(desde));
+            ps.setTimestamp(2, Timestamp.valueOf(hasta));
+            if (idArticulo != null) {
+                ps.setLong(3, idArticulo);
+            }
+            return ps;
+        }, rs -> {
+            consumidor.aceptar(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3));
+        });
+    }
+}
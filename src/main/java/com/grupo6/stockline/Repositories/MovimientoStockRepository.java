@@ -0,0 +1,44 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.MovimientoStock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MovimientoStockRepository extends BaseRepository<MovimientoStock, Long>, MovimientoStockRepositoryCustom {
+
+    // Último movimiento registrado hasta el instante de corte (0 si no hay ninguno)
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM MovimientoStock m WHERE m.fechaAlta <= :hasta")
+    Long obtenerUltimoIdHasta(@Param("hasta") LocalDateTime hasta);
+
+    // Suma de los movimientos de un artículo posteriores a un snapshot, hasta una fecha dada
+    @Query("SELECT COALESCE(SUM(m.cantidad), 0) FROM MovimientoStock m " +
+            "WHERE m.articulo.id = :idArticulo AND m.id > :desdeId AND m.fechaAlta <= :hasta")
+    Long sumarMovimientos(@Param("idArticulo") Long idArticulo,
+                          @Param("desdeId") Long desdeId,
+                          @Param("hasta") LocalDateTime hasta);
+
+    // Inicio del libro para el artículo: antes de su apertura no hay registro de stock
+    @Query("SELECT MIN(m.fechaAlta) FROM MovimientoStock m " +
+            "WHERE m.articulo.id = :idArticulo AND m.tipo = com.grupo6.stockline.Enum.TipoMovimientoStock.APERTURA")
+    LocalDateTime obtenerFechaApertura(@Param("idArticulo") Long idArticulo);
+
+    // Artículos cuya apertura ya está incluida en un corte hasta hastaId
+    @Query("SELECT m.articulo.id FROM MovimientoStock m " +
+            "WHERE m.tipo = com.grupo6.stockline.Enum.TipoMovimientoStock.APERTURA AND m.id <= :hastaId")
+    List<Long> obtenerArticulosConAperturaHasta(@Param("hastaId") Long hastaId);
+
+    @Query("SELECT a.id FROM Articulo a WHERE NOT EXISTS (SELECT 1 FROM MovimientoStock m " +
+            "WHERE m.articulo.id = a.id AND m.tipo = com.grupo6.stockline.Enum.TipoMovimientoStock.APERTURA) ORDER BY a.id")
+    List<Long> obtenerArticulosSinApertura();
+
+    // Deltas por artículo en un rango de ids: [idArticulo, suma]
+    @Query("SELECT m.articulo.id, SUM(m.cantidad) FROM MovimientoStock m " +
+            "WHERE m.id > :desdeId AND m.id <= :hastaId GROUP BY m.articulo.id")
+    List<Object[]> sumarPorArticulo(@Param("desdeId") Long desdeId, @Param("hastaId") Long hastaId);
+
+}
@@ -0,0 +1,31 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.MovimientoStock;
+import com.grupo6.stockline.Entities.SnapshotStock;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MovimientoStockRepositoryCustom {
+
+    // Inserta los movimientos en un único lote JDBC (solo INSERT, nunca UPDATE sobre filas existentes)
+    void insertarEnLote(List<MovimientoStock> movimientos);
+
+    // Movimiento de apertura de cada artículo que todavía no lo tiene: su saldo actual menos los movimientos
+    // ya aplicados a articulo.stock_actual. Bloquea las filas de los artículos, así que ninguna venta, ajuste o
+    // volcado puede cambiar el stock entre la lectura del saldo y la de los movimientos
+    void registrarAperturas(List<Long> idsArticulo);
+
+    // Movimientos confirmados que todavía no se aplicaron a articulo.stock_actual
+    MovimientosNoVolcados leerNoVolcados();
+
+    // Marca los movimientos como aplicados (en la misma transacción que aplica sus deltas)
+    void marcarVolcados(List<Long> idsMovimiento);
+
+    // Inserta los snapshots de un corte en un único lote JDBC
+    void insertarSnapshotsEnLote(List<SnapshotStock> snapshots);
+
+    record MovimientosNoVolcados(List<Long> idsMovimiento, Map<Long, Integer> deltaPorArticulo) {
+    }
+
+}
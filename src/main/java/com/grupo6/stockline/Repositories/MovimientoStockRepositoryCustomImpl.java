@@ -0,0 +1,129 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.MovimientoStock;
+import com.grupo6.stockline.Entities.SnapshotStock;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MovimientoStockRepositoryCustomImpl implements MovimientoStockRepositoryCustom {
+
+    private static final String INSERT_MOVIMIENTO =
+            "INSERT INTO movimiento_stock (articulo_id, cantidad, tipo, id_referencia, volcado, fecha_alta) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String LEER_NO_VOLCADOS =
+            "SELECT id, articulo_id, cantidad FROM movimiento_stock WHERE volcado = FALSE ORDER BY id";
+    private static final String MARCAR_VOLCADO =
+            "UPDATE movimiento_stock SET volcado = TRUE WHERE id = ? AND volcado = FALSE";
+    private static final String BLOQUEAR_ARTICULOS =
+            "SELECT id, stock_actual FROM articulo WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String ARTICULOS_CON_APERTURA =
+            "SELECT articulo_id FROM movimiento_stock WHERE tipo = 'APERTURA' AND articulo_id IN (%s)";
+    // Filas anteriores a la marca de volcado (volcado nulo) se aplicaban directamente al stock
+    private static final String SUMAR_APLICADOS =
+            "SELECT articulo_id, SUM(cantidad) FROM movimiento_stock " +
+            "WHERE articulo_id IN (%s) AND (volcado IS NULL OR volcado = TRUE) GROUP BY articulo_id";
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO snapshot_stock (articulo_id, stock, id_ultimo_movimiento, fecha_corte, fecha_alta) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovimientoStockRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertarEnLote(List<MovimientoStock> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVIMIENTO, movimientos, movimientos.size(), (ps, movimiento) -> {
+            LocalDateTime fechaAlta = movimiento.getFechaAlta() != null ? movimiento.getFechaAlta() : LocalDateTime.now();
+            ps.setLong(1, movimiento.getArticulo().getId());
+            ps.setInt(2, movimiento.getCantidad());
+            ps.setString(3, movimiento.getTipo().name());
+            if (movimiento.getIdReferencia() != null) {
+                ps.setLong(4, movimiento.getIdReferencia());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setBoolean(5, Boolean.TRUE.equals(movimiento.getVolcado()));
+            ps.setTimestamp(6, Timestamp.valueOf(fechaAlta));
+        });
+    }
+
+    @Override
+    public void registrarAperturas(List<Long> idsArticulo) {
+        if (idsArticulo.isEmpty()) {
+            return;
+        }
+        String marcadores = String.join(", ", Collections.nCopies(idsArticulo.size(), "?"));
+        Object[] ids = idsArticulo.toArray();
+
+        Map<Long, Integer> saldos = new HashMap<>();
+        jdbcTemplate.query(String.format(BLOQUEAR_ARTICULOS, marcadores), rs -> {
+            saldos.put(rs.getLong(1), rs.getInt(2));
+        }, ids);
+        jdbcTemplate.query(String.format(ARTICULOS_CON_APERTURA, marcadores), rs -> {
+            saldos.remove(rs.getLong(1));
+        }, ids);
+        Map<Long, Integer> aplicados = new HashMap<>();
+        jdbcTemplate.query(String.format(SUMAR_APLICADOS, marcadores), rs -> {
+            aplicados.put(rs.getLong(1), rs.getInt(2));
+        }, ids);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<MovimientoStock> aperturas = new ArrayList<>(saldos.size());
+        saldos.forEach((idArticulo, saldo) -> {
+            Articulo articulo = new Articulo();
+            articulo.setId(idArticulo);
+            MovimientoStock apertura = new MovimientoStock(saldo - aplicados.getOrDefault(idArticulo, 0), null,
+                    TipoMovimientoStock.APERTURA, true, articulo);
+            apertura.setFechaAlta(ahora);
+            aperturas.add(apertura);
+        });
+        insertarEnLote(aperturas);
+    }
+
+    @Override
+    public MovimientosNoVolcados leerNoVolcados() {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Integer> deltaPorArticulo = new HashMap<>();
+        jdbcTemplate.query(LEER_NO_VOLCADOS, rs -> {
+            ids.add(rs.getLong(1));
+            deltaPorArticulo.merge(rs.getLong(2), rs.getInt(3), Integer::sum);
+        });
+        return new MovimientosNoVolcados(ids, deltaPorArticulo);
+    }
+
+    @Override
+    public void marcarVolcados(List<Long> idsMovimiento) {
+        if (idsMovimiento.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARCAR_VOLCADO, idsMovimiento, 500, (ps, id) -> ps.setLong(1, id));
+    }
+
+    @Override
+    public void insertarSnapshotsEnLote(List<SnapshotStock> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, snapshots, 500, (ps, snapshot) -> {
+            ps.setLong(1, snapshot.getArticulo().getId());
+            ps.setInt(2, snapshot.getStock());
+            ps.setLong(3, snapshot.getIdUltimoMovimiento());
+            ps.setTimestamp(4, Timestamp.valueOf(snapshot.getFechaCorte()));
+            ps.setTimestamp(5, Timestamp.valueOf(ahora));
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.PronosticoDemanda;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PronosticoDemandaRepository extends BaseRepository<PronosticoDemanda, Long>, PronosticoDemandaRepositoryCustom {
+
+    Optional<PronosticoDemanda> findByArticuloId(Long idArticulo);
+
+}
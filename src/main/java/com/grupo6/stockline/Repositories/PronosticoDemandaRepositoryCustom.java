@@ -0,0 +1,10 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Service.dto.PronosticoLoteDTO;
+
+public interface PronosticoDemandaRepositoryCustom {
+
+    // Reemplaza la tabla completa por el resultado de la corrida
+    void reemplazarPronosticos(PronosticoLoteDTO pronosticos);
+
+}
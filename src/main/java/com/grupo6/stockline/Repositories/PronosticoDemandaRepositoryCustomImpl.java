@@ -0,0 +1,58 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Service.dto.PronosticoLoteDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+public class PronosticoDemandaRepositoryCustomImpl implements PronosticoDemandaRepositoryCustom {
+
+    private static final String BORRAR_PRONOSTICOS = "DELETE FROM pronostico_demanda";
+    private static final String INSERT_PRONOSTICO =
+            "INSERT INTO pronostico_demanda (articulo_id, demanda_promedio_diaria, desviacion_estandar, dias_con_ventas, " +
+            "pronostico_diario, pronostico30dias, modelo_pronostico, fecha_calculo, fecha_alta) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanoLoteEscritura;
+
+    public PronosticoDemandaRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                                 @Value("${stockline.pronostico-lote.tamano-lote-escritura:1000}") int tamanoLoteEscritura) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanoLoteEscritura = tamanoLoteEscritura;
+    }
+
+    @Override
+    public void reemplazarPronosticos(PronosticoLoteDTO pronosticos) {
+        jdbcTemplate.update(BORRAR_PRONOSTICOS);
+
+        Timestamp fechaCalculo = Timestamp.valueOf(pronosticos.fechaCalculo());
+        for (int desde = 0; desde < pronosticos.tamano(); desde += tamanoLoteEscritura) {
+            int inicio = desde;
+            int cantidad = Math.min(tamanoLoteEscritura, pronosticos.tamano() - inicio);
+            jdbcTemplate.batchUpdate(INSERT_PRONOSTICO, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int j) throws SQLException {
+                    int i = inicio + j;
+                    ps.setLong(1, pronosticos.idsArticulo()[i]);
+                    ps.setDouble(2, pronosticos.demandaPromedioDiaria()[i]);
+                    ps.setDouble(3, pronosticos.desviacionEstandar()[i]);
+                    ps.setInt(4, pronosticos.diasConVentas()[i]);
+                    ps.setDouble(5, pronosticos.pronosticoDiario()[i]);
+                    ps.setDouble(6, pronosticos.pronostico30Dias()[i]);
+                    ps.setString(7, pronosticos.modeloPronostico()[i]);
+                    ps.setTimestamp(8, fechaCalculo);
+                    ps.setTimestamp(9, fechaCalculo);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return cantidad;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.grupo6.stockline.Repositories;
+
+import com.grupo6.stockline.Entities.SnapshotStock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SnapshotStockRepository extends BaseRepository<SnapshotStock, Long> {
+
+    Optional<SnapshotStock> findFirstByArticuloIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(Long idArticulo, LocalDateTime fechaCorte);
+
+    // Snapshot más reciente de cada artículo
+    @Query("SELECT s FROM SnapshotStock s WHERE s.id IN (SELECT MAX(s2.id) FROM SnapshotStock s2 GROUP BY s2.articulo.id)")
+    List<SnapshotStock> obtenerUltimosSnapshots();
+
+    @Query("SELECT COALESCE(MAX(s.idUltimoMovimiento), 0) FROM SnapshotStock s")
+    Long obtenerUltimoMovimientoConSnapshot();
+
+}
@@ -1,12 +1,14 @@
 package com.grupo6.stockline.Repositories;
 
 import com.grupo6.stockline.Entities.Venta;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface VentaRepository extends BaseRepository<Venta, Long> {
 
@@ -29,5 +31,31 @@ public interface VentaRepository extends BaseRepository<Venta, Long> {
             @Param("idArticulo") Long idArticulo,
             @Param("desde") LocalDateTime desde
     );
-}
 
+    interface VentaArticuloProyeccion {
+        Long getIdVenta();
+        LocalDateTime getFechaAlta();
+        Integer getCantidad();
+    }
+
+    // Cantidad de un artículo en cada venta desde una fecha, con el id de la venta (reconstrucción de las
+    // estadísticas en memoria: permite saber qué ventas ya quedaron contadas)
+    @Query("""
+        SELECT v.id AS idVenta,
+               v.fechaAlta AS fechaAlta,
+               SUM(d.cantidad) AS cantidad
+        FROM Venta v
+        JOIN v.detalleVenta d
+        WHERE d.articulo.id = :idArticulo
+          AND v.fechaAlta >= :desde
+        GROUP BY v.id, v.fechaAlta
+    """)
+    List<VentaArticuloProyeccion> obtenerVentasDeArticuloDesde(
+            @Param("idArticulo") Long idArticulo,
+            @Param("desde") LocalDateTime desde
+    );
+
+    // Vista de detalle: la venta, sus líneas y el artículo de cada línea en una sola consulta
+    @EntityGraph("Venta.detalle")
+    Optional<Venta> findConDetalleById(Long id);
+}
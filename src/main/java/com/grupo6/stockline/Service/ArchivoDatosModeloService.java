@@ -0,0 +1,8 @@
+package com.grupo6.stockline.Service;
+
+public interface ArchivoDatosModeloService {
+
+    // Mueve al archivo los datos de modelo cerrados hace más que el horizonte; devuelve las filas movidas
+    int archivar();
+
+}
@@ -0,0 +1,67 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepositoryCustom.TramoArchivado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Retención de datos_modelo_inventario: cada cálculo cierra la fila vigente e inserta otra, así que la tabla crece sin
+// límite. Las filas cerradas antes del horizonte se copian a datos_modelo_inventario_archivo y se borran, un tramo de
+// ids por transacción. Las filas vigentes nunca se tocan. Como el borrado no pasa por Hibernate, después de cada tramo
+// se desaloja la región de caché de los datos de modelo.
+@Service
+public class ArchivoDatosModeloServiceImpl implements ArchivoDatosModeloService {
+
+    private final DatosModeloInventarioRepository datosRepository;
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonteDias;
+    private final int tamanoTramo;
+
+    public ArchivoDatosModeloServiceImpl(DatosModeloInventarioRepository datosRepository,
+                                         CacheSegundoNivelService cacheSegundoNivelService,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${stockline.archivo-modelos.horizonte-dias:180}") int horizonteDias,
+                                         @Value("${stockline.archivo-modelos.tamano-tramo:1000}") int tamanoTramo) {
+        this.datosRepository = datosRepository;
+        this.cacheSegundoNivelService = cacheSegundoNivelService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.horizonteDias = horizonteDias;
+        this.tamanoTramo = tamanoTramo;
+    }
+
+    @Override
+    @Scheduled(cron = "${stockline.archivo-modelos.cron:0 0 5 * * SUN}")
+    public synchronized int archivar() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime fechaArchivo = LocalDateTime.now();
+        LocalDateTime limite = fechaArchivo.minusDays(horizonteDias);
+
+        int filas = 0;
+        long desdeId = 0;
+        while (true) {
+            long desde = desdeId;
+            TramoArchivado tramo = transactionTemplate.execute(status ->
+                    datosRepository.archivarTramo(desde, limite, tamanoTramo, fechaArchivo));
+            if (tramo == null || tramo.ultimoId() < 0) {
+                break;
+            }
+            filas += tramo.filas();
+            desdeId = tramo.ultimoId();
+            cacheSegundoNivelService.desalojarRegion(CacheSegundoNivelService.REGION_DATOS_MODELO_INVENTARIO);
+        }
+
+        if (filas > 0) {
+            System.out.println("Datos de modelo archivados: " + filas + " filas en "
+                    + (System.currentTimeMillis() - inicio) + " ms");
+        }
+        return filas;
+    }
+}
@@ -7,10 +7,12 @@ import com.grupo6.stockline.Enum.EstadoOrdenCompra;
 import com.grupo6.stockline.Repositories.ArticuloProveedorRepository;
 import com.grupo6.stockline.Repositories.BaseRepository;
 import com.grupo6.stockline.Repositories.DetalleOrdenCompraRepository;
+import com.grupo6.stockline.Service.evento.ArticuloProveedorActualizadoEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +27,7 @@ public class ArticuloProveedorServiceImpl extends BaseServiceImpl<ArticuloProvee
     @Autowired
     DetalleOrdenCompraRepository detalleOrdenCompraRepository;
     @Autowired
-    ArticuloService articuloService;
+    ApplicationEventPublisher eventPublisher;
     @PersistenceContext
     private EntityManager entityManager;
     public ArticuloProveedorServiceImpl(BaseRepository<ArticuloProveedor, Long> baseRepository,
@@ -64,6 +66,8 @@ public class ArticuloProveedorServiceImpl extends BaseServiceImpl<ArticuloProvee
     @Override
     @Transactional
     public void update(Long id, ArticuloProveedor articuloProveedor) throws Exception {
+        // Los datos se validan acá, antes de guardar: el recálculo diferido ya no puede rechazar la edición
+        validarCostos(articuloProveedor);
         ArticuloProveedor articuloProveedorExistente = articuloProveedorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Asociacion no encontrada"));
         articuloProveedorExistente.setCostoPedido(articuloProveedor.getCostoPedido());
@@ -71,7 +75,21 @@ public class ArticuloProveedorServiceImpl extends BaseServiceImpl<ArticuloProvee
         articuloProveedorExistente.setCostoCompra(articuloProveedor.getCostoCompra());
 
         articuloProveedorRepository.save(articuloProveedorExistente);
-        articuloService.calcularModeloInventario(articuloProveedor.getArticulo().getId());
+        // El modelo se recalcula en segundo plano (RecalculoDiferidoService), una vez por ráfaga de ediciones
+        eventPublisher.publishEvent(new ArticuloProveedorActualizadoEvent(
+                articuloProveedorExistente.getArticulo().getId(), articuloProveedorExistente.getProveedor().getId()));
+    }
+
+    private void validarCostos(ArticuloProveedor articuloProveedor) {
+        if (!(articuloProveedor.getCostoPedido() > 0)) {
+            throw new IllegalArgumentException("El costo de pedido debe ser mayor a cero.");
+        }
+        if (!(articuloProveedor.getCostoCompra() > 0)) {
+            throw new IllegalArgumentException("El costo de compra debe ser mayor a cero.");
+        }
+        if (articuloProveedor.getDemoraEntrega() == null || articuloProveedor.getDemoraEntrega() < 0) {
+            throw new IllegalArgumentException("La demora de entrega es obligatoria y no puede ser negativa.");
+        }
     }
 
     @Override
@@ -1,16 +1,21 @@
 package com.grupo6.stockline.Service;
 
 import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Service.dto.ArticuloReponerDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
 public interface ArticuloService extends BaseService<Articulo, Long>{
 
     void bajaArticulo(Long id) throws Exception;
-    List<Articulo> listarArticulosReponer() throws Exception;
+    Page<ArticuloReponerDTO> listarArticulosReponer(Pageable pageable) throws Exception;
     List<Articulo> listarArticulosFaltantes() throws Exception;
     void asignarProveedorPredeterminado(Articulo articulo, Long idProveedor) throws Exception;
     Double calcularCGI(Long id) throws Exception;
+    // Calcula y memoriza el CGI de todo el catálogo activo; devuelve cuántos artículos quedaron en caché
+    int precalentarCGI();
     void realizarAjuste(Long id, Integer cantidadAjuste) throws Exception;
     void calcularModeloInventario(Long id) throws Exception;
 
@@ -3,16 +3,31 @@ package com.grupo6.stockline.Service;
 import com.grupo6.stockline.Entities.*;
 import com.grupo6.stockline.Enum.EstadoOrdenCompra;
 import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
 import com.grupo6.stockline.Repositories.*;
+import com.grupo6.stockline.Service.dto.ArticuloReponerDTO;
+import com.grupo6.stockline.Service.evento.ArticuloActualizadoEvent;
+import com.grupo6.stockline.Service.evento.ArticuloDadoDeBajaEvent;
+import com.grupo6.stockline.Service.evento.ModeloInventarioCalculadoEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> implements ArticuloService {
@@ -27,6 +42,18 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     private ArticuloProveedorRepository articuloProveedorRepository;
     @Autowired
     private DatosModeloInventarioRepository datosRepository;
+    @Autowired
+    private StockEnMemoriaService stockEnMemoriaService;
+    @Autowired
+    private MovimientoStockService movimientoStockService;
+    @Autowired
+    private IndiceFaltantesService indiceFaltantesService;
+    @Autowired
+    private CacheCGIService cacheCGIService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Value("${stockline.cgi.precalentar-al-iniciar:false}")
+    private boolean precalentarCGIAlIniciar;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -37,6 +64,16 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
         this.articuloRepository = articuloRepository;
     }
 
+    @Override
+    protected Set<String> camposOrdenables() {
+        return Set.of("id", "nombreArticulo", "stockActual", "precioVenta");
+    }
+
+    @Override
+    protected Set<String> camposOrdenablesNulos() {
+        return Set.of("nombreArticulo", "stockActual");
+    }
+
     // =========================================================
     // CRUD + REGLAS DE NEGOCIO
     // =========================================================
@@ -45,9 +82,12 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public void save(Articulo articulo) throws Exception {
         try {
+            validarNivelServicio(articulo.getNivelServicio());
             articulo.setFechaAlta(LocalDateTime.now());
             articulo.setStockActual(0);
             articuloRepository.save(articulo);
+            // El artículo entra al libro de movimientos con su saldo inicial
+            movimientoStockService.abrirLibro(List.of(articulo.getId()));
         } catch (Exception e) {
             throw new Exception("Error al guardar el artículo: " + e.getMessage(), e);
         }
@@ -57,14 +97,19 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public void update(Long id, Articulo articulo) throws Exception {
         try {
+            validarNivelServicio(articulo.getNivelServicio());
             Articulo existente = articuloRepository.findById(id)
                     .orElseThrow(() -> new Exception("No se puede actualizar: Artículo no encontrado con ID: " + id));
 
             articulo.setId(id);
             articulo.setFechaAlta(existente.getFechaAlta());
+            // stock_actual no se escribe con save (columna no actualizable); se copia para no dejar el valor del formulario en memoria
             articulo.setStockActual(existente.getStockActual());
+            // El desvío lo mide la recalibración; el formulario no lo edita
+            articulo.setDesviacionDemandaDiaria(existente.getDesviacionDemandaDiaria());
 
             articuloRepository.save(articulo);
+            eventPublisher.publishEvent(new ArticuloActualizadoEvent(id));
 
             calcularModeloInventario(articulo.getId());
         } catch (Exception e) {
@@ -72,6 +117,13 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
         }
     }
 
+    // Fuera de (0, 1) el cálculo del modelo fallaría en cada recálculo posterior (z de la normal inversa)
+    private void validarNivelServicio(Double nivelServicio) {
+        if (nivelServicio != null && !(nivelServicio > 0 && nivelServicio < 1)) {
+            throw new IllegalArgumentException("El nivel de servicio debe estar entre 0 y 1 (exclusivo), por ejemplo 0.95.");
+        }
+    }
+
     @Override
     @Transactional
     public void bajaArticulo(Long id) throws Exception {
@@ -101,6 +153,7 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
             }
 
             articuloRepository.darDeBajaPorId(idArticulo);
+            eventPublisher.publishEvent(new ArticuloDadoDeBajaEvent(idArticulo));
 
         } catch (Exception e) {
             throw new IllegalStateException("Error al dar de baja el artículo: " + e.getMessage(), e);
@@ -113,40 +166,11 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
 
     @Override
     @Transactional
-    public List<Articulo> listarArticulosReponer() throws Exception {
+    public Page<ArticuloReponerDTO> listarArticulosReponer(Pageable pageable) throws Exception {
         try {
-            List<Articulo> listaArticulosAReponer = new ArrayList<>();
-            List<Articulo> articuloList = articuloRepository.findAll();
-
-            for (Articulo a : articuloList) {
-
-                if (a.getFechaBaja() != null) {
-                    continue;
-                }
-
-                List<DatosModeloInventario> datosInventario = a.getDatosModeloInventario();
-                List<DetalleOrdenCompra> detallesArticulos = a.getDetalleOrdenCompra();
-
-                boolean sinOrdenesActivas = detallesArticulos.stream().noneMatch(
-                        dOC -> dOC.getOrdenCompra().getEstadoOrdenCompra() == EstadoOrdenCompra.PENDIENTE
-                                || dOC.getOrdenCompra().getEstadoOrdenCompra() == EstadoOrdenCompra.ENVIADA
-                );
-
-                if (!sinOrdenesActivas) continue;
-
-                for (DatosModeloInventario dmi : datosInventario) {
-                    if (dmi.getFechaBaja() == null &&
-                            dmi.getPuntoPedido() != null &&
-                            a.getStockActual() != null &&
-                            a.getStockActual() <= dmi.getPuntoPedido() &&
-                            a.getModeloInventario() == ModeloInventario.LoteFijo) {
-
-                        listaArticulosAReponer.add(a);
-                        break;
-                    }
-                }
-            }
-            return listaArticulosAReponer;
+            // Una consulta para la página y otra para el total, sin importar el tamaño del catálogo
+            return articuloRepository.listarArticulosReponer(
+                    List.of(EstadoOrdenCompra.PENDIENTE, EstadoOrdenCompra.ENVIADA), pageable);
 
         } catch (Exception e) {
             throw new IllegalStateException("Error al listar artículos a reponer: " + e.getMessage(), e);
@@ -157,26 +181,14 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public List<Articulo> listarArticulosFaltantes() throws Exception {
         try {
-            List<Articulo> listaArticulosFaltantes = new ArrayList<>();
-            List<Articulo> articuloList = articuloRepository.findAll();
-
-            for (Articulo a : articuloList) {
-
-                if (a.getFechaBaja() != null) continue;
-
-                List<DatosModeloInventario> datosArticulo = a.getDatosModeloInventario();
-
-                for (DatosModeloInventario dmi : datosArticulo) {
-                    if (dmi.getFechaBaja() == null &&
-                            dmi.getStockSeguridad() != null &&
-                            a.getStockActual() != null &&
-                            a.getStockActual() <= dmi.getStockSeguridad()) {
-                        listaArticulosFaltantes.add(a);
-                        break;
-                    }
-                }
+            // El índice ya tiene los ids; sólo se cargan los artículos del resultado
+            List<Long> ids = indiceFaltantesService.listarIds();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
             }
 
+            List<Articulo> listaArticulosFaltantes = new ArrayList<>(articuloRepository.findAllById(ids));
+            listaArticulosFaltantes.sort(Comparator.comparing(Articulo::getId));
             return listaArticulosFaltantes;
         } catch (Exception e) {
             throw new IllegalStateException("Error al listar artículos faltantes: " + e.getMessage(), e);
@@ -200,6 +212,7 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
 
             articulo.setProveedorPredeterminado(proveedor);
             articuloRepository.save(articulo);
+            eventPublisher.publishEvent(new ArticuloActualizadoEvent(articulo.getId()));
 
             calcularModeloInventario(articulo.getId());
 
@@ -211,7 +224,15 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Override
     @Transactional
     public Double calcularCGI(Long id) throws Exception {
+        Double memorizado = cacheCGIService.obtener(id);
+        if (memorizado != null) {
+            return memorizado;
+        }
+
         try {
+            // La versión se toma antes de leer: si algo cambia durante el cálculo, el resultado no se guarda
+            long version = cacheCGIService.version(id);
+
             Articulo articulo = articuloRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("No se pudo calcular el CGI: artículo no encontrado"));
 
@@ -223,65 +244,115 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
                     articuloProveedorRepository.findByProveedorAndArticulo(
                             articulo.getProveedorPredeterminado().getId(), id);
 
-            if (articuloProveedor == null) {
-                throw new IllegalStateException("No se encontró configuración de Artículo-Proveedor para el predeterminado.");
-            }
-
-            DatosModeloInventario datos = articulo.getDatosModeloInventario()
-                    .stream()
-                    .filter(dmi -> dmi.getFechaBaja() == null)
-                    .findFirst()
+            DatosModeloInventario datos = datosRepository.findFirstByArticuloIdAndFechaBajaIsNullOrderByIdDesc(id)
                     .orElse(null);
 
-            if (datos == null) {
-                throw new IllegalStateException("No se encontraron datos de modelo de inventario activos para este artículo.");
-            }
+            double cgi = calcularCGI(articulo, articuloProveedor, datos);
+            cacheCGIService.guardar(id, version, cgi, articulo.getModeloInventario() == ModeloInventario.IntervaloFijo);
 
-            Integer demandaArticulo = articulo.getDemandaArticulo();
-            Integer costoAlmacenamiento = articulo.getCostoAlmacenamiento();
+            System.out.println("CGI calculado para artículo " + id + ": " + cgi);
 
-            if (demandaArticulo == null || demandaArticulo <= 0) {
-                throw new IllegalStateException("No se puede calcular el CGI: la demanda del artículo no es válida.");
-            }
-            if (costoAlmacenamiento == null || costoAlmacenamiento <= 0) {
-                throw new IllegalStateException("No se puede calcular el CGI: el costo de almacenamiento no es válido.");
-            }
-            if (articuloProveedor.getCostoCompra() <= 0 || articuloProveedor.getCostoPedido() <= 0) {
-                throw new IllegalStateException("No se puede calcular el CGI: costo de compra o costo de pedido inválidos.");
-            }
+            return cgi;
 
-            double costoArticulo = articuloProveedor.getCostoCompra();
-            double costoPedido = articuloProveedor.getCostoPedido();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al calcular el CGI: " + e.getMessage(), e);
+        }
+    }
 
-            Integer loteOptimo;
+    @Override
+    @Transactional
+    public int precalentarCGI() {
+        // Como en calcularCGI, las versiones se toman antes de cualquier lectura: una invalidación que llegue
+        // durante la carga masiva deja la versión tomada vieja y el resultado calculado no se guarda
+        Map<Long, Long> versiones = new HashMap<>();
+        for (Long id : articuloRepository.obtenerIdsActivos()) {
+            versiones.put(id, cacheCGIService.version(id));
+        }
 
-            if (articulo.getModeloInventario() == ModeloInventario.LoteFijo) {
-                loteOptimo = datos.getLoteOptimo();
-            } else if (articulo.getModeloInventario() == ModeloInventario.IntervaloFijo) {
-                if (datos.getInventarioMaximo() == null) {
-                    throw new IllegalStateException("Datos de inventario incompletos para modelo de intervalo fijo.");
-                }
-                loteOptimo = datos.getInventarioMaximo() - (articulo.getStockActual() != null ? articulo.getStockActual() : 0);
-            } else {
-                throw new IllegalStateException("Modelo de inventario no soportado para cálculo de CGI.");
-            }
+        // Tres consultas para todo el catálogo en lugar de tres por artículo
+        Map<Long, ArticuloProveedor> asociaciones = new HashMap<>();
+        for (ArticuloProveedor asociacion : articuloProveedorRepository.obtenerAsociacionesPredeterminadas()) {
+            asociaciones.put(asociacion.getArticulo().getId(), asociacion);
+        }
+        Map<Long, DatosModeloInventario> datosActivos = new HashMap<>();
+        for (DatosModeloInventario datos : datosRepository.obtenerDatosActivos()) {
+            datosActivos.put(datos.getArticulo().getId(), datos);
+        }
 
-            if (loteOptimo == null || loteOptimo <= 0) {
-                throw new IllegalStateException("No se puede calcular el CGI: lote óptimo no válido (<= 0).");
+        int calculados = 0;
+        for (Articulo articulo : articuloRepository.findAllActive()) {
+            Long id = articulo.getId();
+            Long version = versiones.get(id);
+            // Sin versión previa (alta posterior a la toma) se calculará cuando se consulte
+            if (version == null || cacheCGIService.obtener(id) != null) {
+                continue;
+            }
+            try {
+                double cgi = calcularCGI(articulo, asociaciones.get(id), datosActivos.get(id));
+                cacheCGIService.guardar(id, version, cgi, articulo.getModeloInventario() == ModeloInventario.IntervaloFijo);
+                calculados++;
+            } catch (IllegalStateException e) {
+                // Artículo con datos incompletos: se calculará (y mostrará el error) cuando se consulte
             }
+        }
+        System.out.println("CGI precalculados: " + calculados + " artículos");
+        return calculados;
+    }
 
-            // CGI = D*C + Cp*D/Q + Ca*Q/2
-            double cgi = demandaArticulo * costoArticulo
-                    + (costoPedido * demandaArticulo) / loteOptimo
-                    + (costoAlmacenamiento * loteOptimo) / 2.0;
+    @EventListener(ApplicationReadyEvent.class)
+    public void precalentarCGIAlIniciar() {
+        if (precalentarCGIAlIniciar) {
+            precalentarCGI();
+        }
+    }
 
-            System.out.println("CGI calculado para artículo " + id + ": " + cgi);
+    private double calcularCGI(Articulo articulo, ArticuloProveedor articuloProveedor, DatosModeloInventario datos) {
+        if (articulo.getProveedorPredeterminado() == null) {
+            throw new IllegalStateException("No se ha asignado un proveedor predeterminado.");
+        }
 
-            return cgi;
+        if (articuloProveedor == null) {
+            throw new IllegalStateException("No se encontró configuración de Artículo-Proveedor para el predeterminado.");
+        }
 
-        } catch (Exception e) {
-            throw new IllegalStateException("Error al calcular el CGI: " + e.getMessage(), e);
+        if (datos == null) {
+            throw new IllegalStateException("No se encontraron datos de modelo de inventario activos para este artículo.");
+        }
+
+        Integer demandaArticulo = articulo.getDemandaArticulo();
+        Integer costoAlmacenamiento = articulo.getCostoAlmacenamiento();
+
+        if (demandaArticulo == null || demandaArticulo <= 0) {
+            throw new IllegalStateException("No se puede calcular el CGI: la demanda del artículo no es válida.");
+        }
+        if (costoAlmacenamiento == null || costoAlmacenamiento <= 0) {
+            throw new IllegalStateException("No se puede calcular el CGI: el costo de almacenamiento no es válido.");
+        }
+        if (articuloProveedor.getCostoCompra() <= 0 || articuloProveedor.getCostoPedido() <= 0) {
+            throw new IllegalStateException("No se puede calcular el CGI: costo de compra o costo de pedido inválidos.");
         }
+
+        double costoArticulo = articuloProveedor.getCostoCompra();
+        double costoPedido = articuloProveedor.getCostoPedido();
+
+        Integer loteOptimo;
+
+        if (articulo.getModeloInventario() == ModeloInventario.LoteFijo) {
+            loteOptimo = datos.getLoteOptimo();
+        } else if (articulo.getModeloInventario() == ModeloInventario.IntervaloFijo) {
+            if (datos.getInventarioMaximo() == null) {
+                throw new IllegalStateException("Datos de inventario incompletos para modelo de intervalo fijo.");
+            }
+            loteOptimo = datos.getInventarioMaximo() - (articulo.getStockActual() != null ? articulo.getStockActual() : 0);
+        } else {
+            throw new IllegalStateException("Modelo de inventario no soportado para cálculo de CGI.");
+        }
+
+        if (loteOptimo == null || loteOptimo <= 0) {
+            throw new IllegalStateException("No se puede calcular el CGI: lote óptimo no válido (<= 0).");
+        }
+
+        return CalculadoraModeloInventario.cgi(demandaArticulo, costoArticulo, costoPedido, costoAlmacenamiento, loteOptimo);
     }
 
     // =========================================================
@@ -292,24 +363,32 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public void realizarAjuste(Long id, Integer cantAjuste) throws Exception {
         try {
-            Articulo articulo = articuloRepository.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("No se pudo realizar el ajuste: artículo no encontrado con ID: " + id));
-
             if (cantAjuste == null || cantAjuste <= 0) {
                 throw new IllegalArgumentException("La cantidad a ajustar debe ser mayor a cero.");
             }
 
-            if (articulo.getStockActual() == null) {
-                articulo.setStockActual(0);
+            if (stockEnMemoriaService.estaHabilitado()) {
+                if (!articuloRepository.existsById(id)) {
+                    throw new IllegalArgumentException("No se pudo realizar el ajuste: artículo no encontrado con ID: " + id);
+                }
+                if (!stockEnMemoriaService.reservar(id, cantAjuste)) {
+                    throw new IllegalStateException("No se puede realizar el ajuste: el stock actual ("
+                            + stockEnMemoriaService.consultarStock(id) + ") es menor que la cantidad a reducir (" + cantAjuste + ").");
+                }
+                movimientoStockService.registrar(TipoMovimientoStock.AJUSTE, null, Map.of(id, -cantAjuste));
+                return;
             }
 
-            if (articulo.getStockActual() < cantAjuste) {
+            // Descuento condicional: dos ajustes/ventas concurrentes nunca dejan el stock negativo
+            if (articuloRepository.descontarStock(id, cantAjuste) == 0) {
+                Articulo articulo = articuloRepository.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("No se pudo realizar el ajuste: artículo no encontrado con ID: " + id));
+
+                int stockActual = articulo.getStockActual() != null ? articulo.getStockActual() : 0;
                 throw new IllegalStateException("No se puede realizar el ajuste: el stock actual ("
-                        + articulo.getStockActual() + ") es menor que la cantidad a reducir (" + cantAjuste + ").");
+                        + stockActual + ") es menor que la cantidad a reducir (" + cantAjuste + ").");
             }
-
-            articulo.setStockActual(articulo.getStockActual() - cantAjuste);
-            articuloRepository.save(articulo);
+            movimientoStockService.registrar(TipoMovimientoStock.AJUSTE, null, Map.of(id, -cantAjuste));
 
         } catch (Exception e) {
             throw new Exception("Error al realizar ajuste de stock: " + e.getMessage(), e);
@@ -340,69 +419,7 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public void calcularModeloLoteFijo(Articulo articulo) throws Exception {
         try {
-            if (articulo.getProveedorPredeterminado() == null) {
-                throw new IllegalStateException("No se puede calcular modelo de lote fijo: el artículo no tiene proveedor predeterminado.");
-            }
-
-            if (articulo.getDemandaArticulo() == null || articulo.getDemandaArticulo() <= 0) {
-                throw new IllegalStateException("Demanda del artículo no válida para modelo de lote fijo.");
-            }
-
-            if (articulo.getCostoAlmacenamiento() == null || articulo.getCostoAlmacenamiento() <= 0) {
-                throw new IllegalStateException("Costo de almacenamiento no válido para modelo de lote fijo.");
-            }
-
-            ArticuloProveedor articuloProveedor = articuloProveedorRepository
-                    .findByProveedorAndArticulo(articulo.getProveedorPredeterminado().getId(), articulo.getId());
-
-            if (articuloProveedor == null) {
-                throw new IllegalStateException("No se puede calcular modelo de lote fijo: no existe configuración Artículo-Proveedor.");
-            }
-
-            if (articuloProveedor.getCostoPedido() <= 0) {
-                throw new IllegalStateException("Costo de pedido no válido para modelo de lote fijo.");
-            }
-
-            // Cierro datos anteriores
-            for (DatosModeloInventario d : articulo.getDatosModeloInventario()) {
-                if (d.getFechaBaja() == null) {
-                    d.setFechaBaja(LocalDateTime.now());
-                    datosRepository.save(d);
-                }
-            }
-
-            DatosModeloInventario datosNuevo = new DatosModeloInventario();
-
-            double demandaAnual = articulo.getDemandaArticulo();
-            double demandaDiaria = demandaAnual / 360.0;
-
-            double sigmaDiario = demandaDiaria * 0.20; // 20% de variabilidad
-            double valorZ = 1.64; // 95% nivel de servicio
-
-            int demoraEntrega = articuloProveedor.getDemoraEntrega() != null ? articuloProveedor.getDemoraEntrega() : 0;
-            if (demoraEntrega < 0) demoraEntrega = 0;
-
-            int loteOptimo = (int) Math.round(Math.sqrt(
-                    (2.0 * demandaAnual * articuloProveedor.getCostoPedido()) / articulo.getCostoAlmacenamiento()
-            ));
-
-            if (loteOptimo <= 0) {
-                throw new IllegalStateException("Resultado de lote óptimo no válido (<= 0). Verifique los datos del artículo.");
-            }
-
-            int stockSeguridad = (int) Math.ceil(valorZ * sigmaDiario * Math.sqrt(demoraEntrega));
-            int puntoPedido = (int) Math.round(demandaDiaria * demoraEntrega) + stockSeguridad;
-
-            datosNuevo.setLoteOptimo(loteOptimo);
-            datosNuevo.setPuntoPedido(puntoPedido);
-            datosNuevo.setStockSeguridad(stockSeguridad);
-            datosNuevo.setArticulo(articulo);
-            datosNuevo.setModeloInventario(articulo.getModeloInventario());
-            datosNuevo.setFechaAlta(LocalDateTime.now());
-
-            datosRepository.save(datosNuevo);
-            articuloRepository.save(articulo);
-
+            guardarModelo(articulo, ModeloInventario.LoteFijo);
         } catch (Exception e) {
             throw new IllegalStateException("Error al calcular modelo lote fijo: " + e.getMessage(), e);
         }
@@ -411,66 +428,47 @@ public class ArticuloServiceImpl extends BaseServiceImpl<Articulo, Long> impleme
     @Transactional
     public void calcularModeloIntervaloFijo(Articulo articulo) throws Exception {
         try {
-            if (articulo.getProveedorPredeterminado() == null) {
-                throw new IllegalStateException("No se puede calcular modelo de intervalo fijo: el artículo no tiene proveedor predeterminado.");
-            }
-
-            if (articulo.getDemandaArticulo() == null || articulo.getDemandaArticulo() <= 0) {
-                throw new IllegalStateException("Demanda del artículo no válida para modelo de intervalo fijo.");
-            }
-
-            if (articulo.getCostoAlmacenamiento() == null || articulo.getCostoAlmacenamiento() <= 0) {
-                throw new IllegalStateException("Costo de almacenamiento no válido para modelo de intervalo fijo.");
-            }
-
-            if (articulo.getTiempoRevision() == null || articulo.getTiempoRevision() <= 0) {
-                throw new IllegalStateException("Tiempo de revisión no válido para modelo de intervalo fijo.");
-            }
-
-            ArticuloProveedor articuloProveedor = articuloProveedorRepository
-                    .findByProveedorAndArticulo(articulo.getProveedorPredeterminado().getId(), articulo.getId());
-
-            if (articuloProveedor == null) {
-                throw new IllegalStateException("No se puede calcular modelo de intervalo fijo: no existe configuración Artículo-Proveedor.");
-            }
-
-            // Cierro datos anteriores
-            for (DatosModeloInventario d : articulo.getDatosModeloInventario()) {
-                if (d.getFechaBaja() == null) {
-                    d.setFechaBaja(LocalDateTime.now());
-                    datosRepository.save(d);
-                }
-            }
-
-            DatosModeloInventario datosNuevo = new DatosModeloInventario();
-
-            double demandaAnual = articulo.getDemandaArticulo();
-            double demandaDiaria = demandaAnual / 360.0;
-            double sigmaDiario = demandaDiaria * 0.20;
-            double valorZ = 1.64;
-
-            int demoraEntrega = articuloProveedor.getDemoraEntrega() != null ? articuloProveedor.getDemoraEntrega() : 0;
-            int tiempoRevision = articulo.getTiempoRevision();
-
-            int tiempoTotalRiesgo = demoraEntrega + tiempoRevision;
-            if (tiempoTotalRiesgo <= 0) {
-                throw new IllegalStateException("Tiempo total de riesgo (T + L) no válido para modelo de intervalo fijo.");
-            }
-
-            int stockSeguridad = (int) Math.ceil(valorZ * sigmaDiario * Math.sqrt(tiempoTotalRiesgo));
-            int invMax = (int) Math.round(demandaDiaria * tiempoTotalRiesgo) + stockSeguridad;
-
-            datosNuevo.setStockSeguridad(stockSeguridad);
-            datosNuevo.setInventarioMaximo(invMax);
-            datosNuevo.setArticulo(articulo);
-            datosNuevo.setModeloInventario(articulo.getModeloInventario());
-            datosNuevo.setFechaAlta(LocalDateTime.now());
-
-            datosRepository.save(datosNuevo);
-            articuloRepository.save(articulo);
-
+            guardarModelo(articulo, ModeloInventario.IntervaloFijo);
         } catch (Exception e) {
             throw new IllegalStateException("Error al calcular modelo intervalo fijo: " + e.getMessage(), e);
         }
     }
+
+    // Validación y fórmulas en CalculadoraModeloInventario, las mismas que usa el recálculo masivo
+    private void guardarModelo(Articulo articulo, ModeloInventario modelo) {
+        ArticuloProveedor articuloProveedor = articulo.getProveedorPredeterminado() == null ? null
+                : articuloProveedorRepository.findByProveedorAndArticulo(
+                        articulo.getProveedorPredeterminado().getId(), articulo.getId());
+
+        CalculadoraModeloInventario.ResultadoModelo resultado = CalculadoraModeloInventario.calcularModelo(
+                new CalculadoraModeloInventario.EntradasModelo(modelo,
+                        articulo.getProveedorPredeterminado() != null, articuloProveedor != null,
+                        articulo.getDemandaArticulo(), articulo.getCostoAlmacenamiento(), articulo.getTiempoRevision(),
+                        articulo.getNivelServicio(), articulo.getDesviacionDemandaDiaria(),
+                        articuloProveedor != null ? articuloProveedor.getCostoPedido() : null,
+                        articuloProveedor != null ? articuloProveedor.getDemoraEntrega() : null));
+
+        // Cierro datos anteriores
+        datosRepository.cerrarDatosActivos(articulo.getId(), LocalDateTime.now());
+
+        DatosModeloInventario datosNuevo = new DatosModeloInventario();
+        if (modelo == ModeloInventario.LoteFijo) {
+            datosNuevo.setLoteOptimo(resultado.loteOptimo());
+            datosNuevo.setPuntoPedido(resultado.puntoPedido());
+        } else {
+            datosNuevo.setInventarioMaximo(resultado.inventarioMaximo());
+        }
+        datosNuevo.setStockSeguridad(resultado.stockSeguridad());
+        datosNuevo.setArticulo(articulo);
+        datosNuevo.setModeloInventario(articulo.getModeloInventario());
+        datosNuevo.setDemandaReferencia(articulo.getDemandaArticulo());
+        datosNuevo.setDemoraEntregaReferencia(resultado.demoraEntrega());
+        datosNuevo.setCostoPedidoReferencia(articuloProveedor.getCostoPedido());
+        datosNuevo.setCostoAlmacenamientoReferencia(articulo.getCostoAlmacenamiento());
+        datosNuevo.setFechaAlta(LocalDateTime.now());
+
+        datosRepository.save(datosNuevo);
+        articuloRepository.save(articulo);
+        eventPublisher.publishEvent(new ModeloInventarioCalculadoEvent(articulo.getId(), resultado.stockSeguridad()));
+    }
 }
@@ -0,0 +1,18 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.PoliticaInventarioDTO;
+import com.grupo6.stockline.Service.dto.ResultadoBacktestDTO;
+import com.grupo6.stockline.Service.dto.ResumenBacktestDTO;
+
+import java.time.LocalDate;
+
+public interface BacktestPoliticaService {
+
+    // Reproduce las ventas de [desde, hasta) contra la política candidata; los campos null de la candidata
+    // (o la candidata entera) se toman del modelo vigente del artículo
+    ResultadoBacktestDTO backtest(Long idArticulo, LocalDate desde, LocalDate hasta, PoliticaInventarioDTO candidata);
+
+    // Todo el catálogo con sus políticas vigentes
+    ResumenBacktestDTO backtestCatalogo(LocalDate desde, LocalDate hasta, int limite);
+
+}
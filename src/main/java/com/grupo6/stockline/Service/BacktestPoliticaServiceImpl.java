@@ -0,0 +1,328 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository.ParametrosSimulacionProyeccion;
+import com.grupo6.stockline.Repositories.DetalleVentaRepository;
+import com.grupo6.stockline.Service.dto.PoliticaInventarioDTO;
+import com.grupo6.stockline.Service.dto.ResultadoBacktestDTO;
+import com.grupo6.stockline.Service.dto.ResumenBacktestDTO;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Backtest determinista: reproduce día por día las ventas reales (DetalleVenta, en orden de fecha) contra una política
+// de inventario y cuenta los quiebres, los pedidos y el costo de almacenamiento que habría tenido. Cada artículo arranca
+// con la política llena (punto de pedido + lote, o inventario máximo), los pedidos llegan tras la demora del proveedor
+// predeterminado y la demanda que no se puede atender se pierde.
+// Las ventas se leen una sola vez en streaming y se reparten por artículo en particiones de arreglos primitivos;
+// cada partición se reproduce en un núcleo, con las llegadas pendientes en un calendario circular por artículo.
+@Service
+public class BacktestPoliticaServiceImpl implements BacktestPoliticaService {
+
+    private final DatosModeloInventarioRepository datosRepository;
+    private final DetalleVentaRepository detalleVentaRepository;
+
+    public BacktestPoliticaServiceImpl(DatosModeloInventarioRepository datosRepository,
+                                       DetalleVentaRepository detalleVentaRepository) {
+        this.datosRepository = datosRepository;
+        this.detalleVentaRepository = detalleVentaRepository;
+    }
+
+    @Override
+    public ResultadoBacktestDTO backtest(Long idArticulo, LocalDate desde, LocalDate hasta, PoliticaInventarioDTO candidata) {
+        validarPeriodo(desde, hasta);
+        ParametrosSimulacionProyeccion parametros = datosRepository.obtenerParametrosSimulacion(idArticulo)
+                .orElseThrow(() -> new IllegalStateException(
+                        "El artículo no tiene modelo de inventario vigente ni proveedor predeterminado."));
+
+        PoliticaInventarioDTO politica = combinar(politicaVigente(parametros), candidata);
+        validar(politica);
+
+        Politicas politicas = new Politicas(1);
+        politicas.agregar(idArticulo, politica, parametros);
+        return reproducir(politicas, desde, hasta, idArticulo).resultados.get(0);
+    }
+
+    @Override
+    public ResumenBacktestDTO backtestCatalogo(LocalDate desde, LocalDate hasta, int limite) {
+        validarPeriodo(desde, hasta);
+        long inicio = System.currentTimeMillis();
+
+        List<ParametrosSimulacionProyeccion> catalogo = datosRepository.obtenerParametrosSimulacion();
+        Politicas politicas = new Politicas(catalogo.size());
+        for (ParametrosSimulacionProyeccion parametros : catalogo) {
+            PoliticaInventarioDTO politica = politicaVigente(parametros);
+            try {
+                validar(politica);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            politicas.agregar(parametros.getIdArticulo(), politica, parametros);
+        }
+
+        Reproduccion reproduccion = reproducir(politicas, desde, hasta, null);
+        List<ResultadoBacktestDTO> resultados = reproduccion.resultados;
+
+        long demanda = 0;
+        long atendida = 0;
+        long diasConQuiebre = 0;
+        double costoAlmacenamiento = 0;
+        double costoPedidos = 0;
+        for (ResultadoBacktestDTO resultado : resultados) {
+            demanda += resultado.demanda();
+            atendida += resultado.demandaAtendida();
+            diasConQuiebre += resultado.diasConQuiebre();
+            costoAlmacenamiento += resultado.costoAlmacenamiento();
+            costoPedidos += resultado.costoPedidos();
+        }
+
+        List<ResultadoBacktestDTO> peores = new ArrayList<>(resultados);
+        peores.sort(Comparator.comparingInt(ResultadoBacktestDTO::diasConQuiebre).reversed()
+                .thenComparing(ResultadoBacktestDTO::idArticulo));
+
+        int tope = Math.max(0, limite);
+        return new ResumenBacktestDTO(desde, hasta, resultados.size(), reproduccion.lineas,
+                demanda > 0 ? (double) atendida / demanda : 1.0, diasConQuiebre, costoAlmacenamiento, costoPedidos,
+                System.currentTimeMillis() - inicio,
+                peores.size() > tope ? List.copyOf(peores.subList(0, tope)) : peores);
+    }
+
+    private void validarPeriodo(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("El período del backtest no es válido: 'desde' debe ser anterior a 'hasta'.");
+        }
+    }
+
+    private PoliticaInventarioDTO politicaVigente(ParametrosSimulacionProyeccion parametros) {
+        return new PoliticaInventarioDTO(parametros.getModeloInventario(), parametros.getPuntoPedido(),
+                parametros.getLoteOptimo(), parametros.getTiempoRevision(), parametros.getInventarioMaximo(),
+                parametros.getDemoraEntrega());
+    }
+
+    private PoliticaInventarioDTO combinar(PoliticaInventarioDTO vigente, PoliticaInventarioDTO candidata) {
+        if (candidata == null) {
+            return vigente;
+        }
+        return new PoliticaInventarioDTO(
+                candidata.modeloInventario() != null ? candidata.modeloInventario() : vigente.modeloInventario(),
+                candidata.puntoPedido() != null ? candidata.puntoPedido() : vigente.puntoPedido(),
+                candidata.loteOptimo() != null ? candidata.loteOptimo() : vigente.loteOptimo(),
+                candidata.tiempoRevision() != null ? candidata.tiempoRevision() : vigente.tiempoRevision(),
+                candidata.inventarioMaximo() != null ? candidata.inventarioMaximo() : vigente.inventarioMaximo(),
+                candidata.demoraEntrega() != null ? candidata.demoraEntrega() : vigente.demoraEntrega());
+    }
+
+    private void validar(PoliticaInventarioDTO politica) {
+        if (politica.modeloInventario() == ModeloInventario.LoteFijo) {
+            if (politica.loteOptimo() == null || politica.loteOptimo() <= 0 || politica.puntoPedido() == null) {
+                throw new IllegalStateException("La política de lote fijo necesita punto de pedido y lote mayor a cero.");
+            }
+        } else if (politica.modeloInventario() == ModeloInventario.IntervaloFijo) {
+            if (politica.tiempoRevision() == null || politica.tiempoRevision() <= 0 || politica.inventarioMaximo() == null) {
+                throw new IllegalStateException("La política de intervalo fijo necesita período de revisión e inventario máximo.");
+            }
+        } else {
+            throw new IllegalStateException("Modelo de inventario no soportado para el backtest.");
+        }
+    }
+
+    private Reproduccion reproducir(Politicas politicas, LocalDate desde, LocalDate hasta, Long idArticulo) {
+        int n = politicas.cantidad;
+        int dias = (int) (hasta.toEpochDay() - desde.toEpochDay());
+        int cantidadParticiones = Math.max(1, Math.min(n, Runtime.getRuntime().availableProcessors() * 2));
+
+        Map<Long, Integer> indices = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indices.put(politicas.ids[i], i);
+        }
+
+        // El artículo i va a la partición i % P con índice local i / P; dentro de cada partición las líneas
+        // quedan en orden de fecha porque así llegan del streaming
+        Particion[] particiones = new Particion[cantidadParticiones];
+        for (int p = 0; p < cantidadParticiones; p++) {
+            particiones[p] = new Particion();
+        }
+        long[] lineas = new long[1];
+        long primerDia = desde.toEpochDay();
+        detalleVentaRepository.recorrerLineasEnOrden(desde.atStartOfDay(), hasta.atStartOfDay(), idArticulo,
+                (id, fechaVenta, cantidad) -> {
+                    lineas[0]++;
+                    Integer indice = indices.get(id);
+                    if (indice != null) {
+                        particiones[indice % cantidadParticiones].agregar(indice / cantidadParticiones,
+                                (int) (fechaVenta.toLocalDate().toEpochDay() - primerDia), cantidad);
+                    }
+                });
+
+        long[] demanda = new long[n];
+        long[] atendida = new long[n];
+        int[] diasConQuiebre = new int[n];
+        int[] pedidos = new int[n];
+        long[] unidadesPedidas = new long[n];
+        double[] inventario = new double[n];
+
+        IntStream.range(0, cantidadParticiones).parallel().forEach(p -> reproducirParticion(
+                politicas, particiones[p], p, cantidadParticiones, dias,
+                demanda, atendida, diasConQuiebre, pedidos, unidadesPedidas, inventario));
+
+        double anios = dias / CalculadoraModeloInventario.DIAS_POR_ANIO;
+        List<ResultadoBacktestDTO> resultados = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double inventarioPromedio = inventario[i] / dias;
+            resultados.add(new ResultadoBacktestDTO(
+                    politicas.ids[i],
+                    politicas.politicas[i],
+                    demanda[i],
+                    atendida[i],
+                    demanda[i] > 0 ? (double) atendida[i] / demanda[i] : 1.0,
+                    diasConQuiebre[i],
+                    pedidos[i],
+                    unidadesPedidas[i],
+                    inventarioPromedio,
+                    politicas.costoAlmacenamiento[i] * inventarioPromedio * anios,
+                    politicas.costoPedido[i] * pedidos[i]));
+        }
+        return new Reproduccion(lineas[0], resultados);
+    }
+
+    // Cada artículo de la partición escribe sólo su posición global: no hace falta sincronizar
+    private void reproducirParticion(Politicas politicas, Particion particion, int p, int cantidadParticiones, int dias,
+                                     long[] demanda, long[] atendida, int[] diasConQuiebre, int[] pedidos,
+                                     long[] unidadesPedidas, double[] inventario) {
+        int locales = (politicas.cantidad - p + cantidadParticiones - 1) / cantidadParticiones;
+        if (locales <= 0) {
+            return;
+        }
+
+        // Calendario circular de llegadas: con demora máxima L, un pedido cae como mucho L días adelante
+        int demoraMaxima = 1;
+        for (int j = 0; j < locales; j++) {
+            demoraMaxima = Math.max(demoraMaxima, politicas.demora[j * cantidadParticiones + p]);
+        }
+        int tamanoCalendario = demoraMaxima + 1;
+        long[] llegadas = new long[locales * tamanoCalendario];
+        long[] enMano = new long[locales];
+        long[] enCamino = new long[locales];
+        long[] demandaDelDia = new long[locales];
+        for (int j = 0; j < locales; j++) {
+            int i = j * cantidadParticiones + p;
+            enMano[j] = politicas.loteFijo[i]
+                    ? politicas.puntoPedido[i] + politicas.loteOptimo[i]
+                    : politicas.inventarioMaximo[i];
+        }
+
+        int k = 0;
+        for (int dia = 0; dia < dias; dia++) {
+            int ranura = dia % tamanoCalendario;
+            while (k < particion.filas && particion.dias[k] == dia) {
+                demandaDelDia[particion.locales[k]] += particion.cantidades[k];
+                k++;
+            }
+
+            for (int j = 0; j < locales; j++) {
+                int i = j * cantidadParticiones + p;
+                int posicion = j * tamanoCalendario + ranura;
+                enMano[j] += llegadas[posicion];
+                enCamino[j] -= llegadas[posicion];
+                llegadas[posicion] = 0;
+
+                long pedido = demandaDelDia[j];
+                demandaDelDia[j] = 0;
+                demanda[i] += pedido;
+                long servido = PoliticaInventarioDiaria.atendida(pedido, enMano[j]);
+                if (servido < pedido) {
+                    diasConQuiebre[i]++;
+                }
+                atendida[i] += servido;
+                enMano[j] -= servido;
+
+                long cantidad = PoliticaInventarioDiaria.cantidadAPedir(politicas.loteFijo[i], politicas.puntoPedido[i],
+                        politicas.loteOptimo[i], politicas.tiempoRevision[i], politicas.inventarioMaximo[i],
+                        dia, enMano[j] + enCamino[j]);
+                if (cantidad > 0) {
+                    int llegada = PoliticaInventarioDiaria.diaLlegada(dia, politicas.demora[i]);
+                    llegadas[j * tamanoCalendario + llegada % tamanoCalendario] += cantidad;
+                    enCamino[j] += cantidad;
+                    pedidos[i]++;
+                    unidadesPedidas[i] += cantidad;
+                }
+                inventario[i] += enMano[j];
+            }
+        }
+    }
+
+    private record Reproduccion(long lineas, List<ResultadoBacktestDTO> resultados) {
+    }
+
+    // Políticas del backtest en arreglos paralelos: la posición i es el artículo ids[i]
+    private static final class Politicas {
+        private final long[] ids;
+        private final PoliticaInventarioDTO[] politicas;
+        private final boolean[] loteFijo;
+        private final int[] puntoPedido;
+        private final int[] loteOptimo;
+        private final int[] tiempoRevision;
+        private final int[] inventarioMaximo;
+        private final int[] demora;
+        private final double[] costoAlmacenamiento;
+        private final double[] costoPedido;
+        private int cantidad;
+
+        private Politicas(int capacidad) {
+            ids = new long[capacidad];
+            politicas = new PoliticaInventarioDTO[capacidad];
+            loteFijo = new boolean[capacidad];
+            puntoPedido = new int[capacidad];
+            loteOptimo = new int[capacidad];
+            tiempoRevision = new int[capacidad];
+            inventarioMaximo = new int[capacidad];
+            demora = new int[capacidad];
+            costoAlmacenamiento = new double[capacidad];
+            costoPedido = new double[capacidad];
+        }
+
+        private void agregar(Long id, PoliticaInventarioDTO politica, ParametrosSimulacionProyeccion parametros) {
+            int i = cantidad++;
+            ids[i] = id;
+            politicas[i] = politica;
+            loteFijo[i] = politica.modeloInventario() == ModeloInventario.LoteFijo;
+            if (loteFijo[i]) {
+                puntoPedido[i] = politica.puntoPedido();
+                loteOptimo[i] = politica.loteOptimo();
+            } else {
+                tiempoRevision[i] = politica.tiempoRevision();
+                inventarioMaximo[i] = politica.inventarioMaximo();
+            }
+            demora[i] = politica.demoraEntrega() != null ? Math.max(politica.demoraEntrega(), 0) : 0;
+            costoAlmacenamiento[i] = parametros.getCostoAlmacenamiento() != null ? parametros.getCostoAlmacenamiento() : 0;
+            costoPedido[i] = parametros.getCostoPedido() != null ? parametros.getCostoPedido() : 0;
+        }
+    }
+
+    // Líneas de venta de una partición en orden de fecha: índice local del artículo, día relativo y cantidad
+    private static final class Particion {
+        private int[] locales = new int[1024];
+        private int[] dias = new int[1024];
+        private int[] cantidades = new int[1024];
+        private int filas;
+
+        private void agregar(int local, int dia, int cantidad) {
+            if (filas == locales.length) {
+                locales = Arrays.copyOf(locales, filas * 2);
+                dias = Arrays.copyOf(dias, filas * 2);
+                cantidades = Arrays.copyOf(cantidades, filas * 2);
+            }
+            locales[filas] = local;
+            dias[filas] = dia;
+            cantidades[filas++] = cantidad;
+        }
+    }
+}
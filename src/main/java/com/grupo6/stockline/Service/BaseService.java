@@ -1,6 +1,7 @@
 package com.grupo6.stockline.Service;
 
 import com.grupo6.stockline.Entities.Base;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
 
 import java.io.Serializable;
 import java.util.List;
@@ -13,5 +14,6 @@ public interface BaseService<E extends Base, ID extends Long>{
      void update(ID id, E entity) throws Exception;
      void delete(ID id) throws Exception;
      List<E> findAllActive() throws Exception;
+     PaginaDTO<E> findPagina(String cursor, String orden, int tamano) throws Exception;
 
 }
\ No newline at end of file
@@ -2,12 +2,26 @@ package com.grupo6.stockline.Service;
 
 import com.grupo6.stockline.Entities.Base;
 import com.grupo6.stockline.Repositories.BaseRepository;
+import com.grupo6.stockline.Service.dto.PaginaDTO;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class BaseServiceImpl<E extends Base, ID extends Long> implements BaseService<E, ID> {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 500;
+
     protected BaseRepository<E, ID> baseRepository;
 
     public BaseServiceImpl(BaseRepository<E, ID> baseRepository) {
@@ -74,4 +88,156 @@ public abstract class BaseServiceImpl<E extends Base, ID extends Long> implement
             throw new Exception("Error al obtener los datos: " + e.getMessage(), e);
         }
     }
+
+    // =========================================================
+    // LISTADO PAGINADO POR KEYSET
+    // =========================================================
+
+    // Cada página filtra por "(orden, id) > última fila vista" en lugar de usar OFFSET: el costo y la memoria
+    // dependen sólo del tamaño de página, y las altas/bajas concurrentes no desplazan filas entre páginas.
+    // Los nulos del campo de orden van al final en orden ascendente y al principio en descendente (como si
+    // fueran el valor más alto), tanto en el ORDER BY como en la condición keyset, así que una fila con el
+    // campo nulo también sirve de cursor. Ese tramo de nulos sólo se arma para los campos de camposOrdenablesNulos:
+    // en los demás el ORDER BY queda (campo, id) y la condición puede recorrer un índice (campo, id).
+    @Transactional
+    public PaginaDTO<E> findPagina(String cursor, String orden, int tamano) throws Exception {
+        try {
+            String ordenAplicado = normalizarOrden(orden);
+            Sort sort = armarSort(ordenAplicado);
+            int limite = Math.min(Math.max(tamano, 1), TAMANO_MAXIMO_PAGINA);
+            CursorKeyset.Posicion posicion = CursorKeyset.decodificar(cursor, sort);
+
+            String campo = sort.iterator().next().getProperty();
+            boolean descendente = ordenAplicado.endsWith(",desc");
+            // Hacia atrás se recorre en orden inverso y la página se invierte al final
+            boolean recorridoAscendente = descendente != posicion.adelante();
+
+            List<E> filas = new ArrayList<>(baseRepository.findBy(
+                    paginaKeyset(campo, camposOrdenablesNulos().contains(campo), recorridoAscendente, posicion),
+                    consulta -> consulta.limit(limite + 1).all()));
+            boolean hayMas = filas.size() > limite;
+            if (hayMas) {
+                filas.remove(limite);
+            }
+            if (!posicion.adelante()) {
+                Collections.reverse(filas);
+            }
+
+            String anterior = null;
+            String siguiente = null;
+            if (!filas.isEmpty()) {
+                Map<String, Object> primera = claves(filas.get(0), campo);
+                Map<String, Object> ultima = claves(filas.get(filas.size() - 1), campo);
+
+                if (posicion.adelante()) {
+                    anterior = posicion.esInicio() ? null : CursorKeyset.codificar(false, primera);
+                    siguiente = hayMas ? CursorKeyset.codificar(true, ultima) : null;
+                } else {
+                    // Hacia atrás, la fila de más indica que quedan filas anteriores
+                    anterior = hayMas ? CursorKeyset.codificar(false, primera) : null;
+                    siguiente = CursorKeyset.codificar(true, ultima);
+                }
+            }
+
+            return new PaginaDTO<>(filas, ordenAplicado, limite, anterior, siguiente);
+        } catch (Exception e) {
+            throw new Exception("Error al obtener la página: " + e.getMessage(), e);
+        }
+    }
+
+    // Filas posteriores a la posición en el sentido del recorrido, ordenadas por (campo nulo, campo, id);
+    // si el campo no admite nulos, por (campo, id)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<E> paginaKeyset(String campo, boolean admiteNulos, boolean ascendente,
+                                          CursorKeyset.Posicion posicion) {
+        return (root, query, cb) -> {
+            Expression<Long> id = root.get("id");
+            Expression<Comparable> valor = root.get(campo);
+
+            List<Order> ordenes = new ArrayList<>();
+            if (!campo.equals("id")) {
+                if (admiteNulos) {
+                    Expression<Integer> esNulo = cb.<Integer>selectCase().when(cb.isNull(valor), 1).otherwise(0);
+                    ordenes.add(ascendente ? cb.asc(esNulo) : cb.desc(esNulo));
+                }
+                ordenes.add(ascendente ? cb.asc(valor) : cb.desc(valor));
+            }
+            ordenes.add(ascendente ? cb.asc(id) : cb.desc(id));
+            query.orderBy(ordenes);
+
+            if (posicion.esInicio()) {
+                return cb.conjunction();
+            }
+
+            Long idCursor = (Long) posicion.claves().get("id");
+            Predicate desempate = ascendente ? cb.greaterThan(id, idCursor) : cb.lessThan(id, idCursor);
+            if (campo.equals("id")) {
+                return desempate;
+            }
+
+            Comparable valorCursor = (Comparable) posicion.claves().get(campo);
+            if (!admiteNulos) {
+                if (valorCursor == null) {
+                    throw new IllegalArgumentException("Cursor inválido: el campo " + campo + " no admite nulos.");
+                }
+                Predicate empate = cb.and(cb.equal(valor, valorCursor), desempate);
+                return ascendente
+                        ? cb.or(cb.greaterThan(valor, valorCursor), empate)
+                        : cb.or(cb.lessThan(valor, valorCursor), empate);
+            }
+            if (valorCursor == null) {
+                // Los nulos son el último tramo ascendente: después sólo quedan nulos con id mayor
+                return ascendente
+                        ? cb.and(cb.isNull(valor), desempate)
+                        : cb.or(cb.isNotNull(valor), cb.and(cb.isNull(valor), desempate));
+            }
+            Predicate empate = cb.and(cb.equal(valor, valorCursor), desempate);
+            return ascendente
+                    ? cb.or(cb.isNull(valor), cb.greaterThan(valor, valorCursor), empate)
+                    : cb.or(cb.lessThan(valor, valorCursor), empate);
+        };
+    }
+
+    private Map<String, Object> claves(E fila, String campo) {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        if (!campo.equals("id")) {
+            claves.put(campo, PropertyAccessorFactory.forBeanPropertyAccess(fila).getPropertyValue(campo));
+        }
+        claves.put("id", fila.getId());
+        return claves;
+    }
+
+    // Propiedades por las que se permite ordenar el listado (el id siempre desempata)
+    protected Set<String> camposOrdenables() {
+        return Set.of("id");
+    }
+
+    // Campos ordenables que pueden ser nulos; sólo en ellos la página separa el tramo de nulos
+    protected Set<String> camposOrdenablesNulos() {
+        return Set.of();
+    }
+
+    protected String ordenPorDefecto() {
+        return "id";
+    }
+
+    private String normalizarOrden(String orden) {
+        if (orden == null || orden.isBlank()) {
+            return ordenPorDefecto();
+        }
+        String[] partes = orden.split(",");
+        String campo = partes[0].trim();
+        if (!camposOrdenables().contains(campo)) {
+            return ordenPorDefecto();
+        }
+        boolean descendente = partes.length > 1 && partes[1].trim().equalsIgnoreCase("desc");
+        return descendente ? campo + ",desc" : campo;
+    }
+
+    private Sort armarSort(String orden) {
+        String[] partes = orden.split(",");
+        Sort.Direction direccion = partes.length > 1 ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direccion, partes[0]);
+        return partes[0].equals("id") ? sort : sort.and(Sort.by(direccion, "id"));
+    }
 }
@@ -0,0 +1,20 @@
+package com.grupo6.stockline.Service;
+
+public interface CacheCGIService {
+
+    // CGI memorizado del artículo, o null si hay que calcularlo
+    Double obtener(Long idArticulo);
+
+    // Versión vigente de las entradas del artículo; se toma antes de leer los datos del cálculo
+    long version(Long idArticulo);
+
+    // Guarda el resultado sólo si ningún dato del artículo cambió desde que se tomó la versión
+    void guardar(Long idArticulo, long version, double cgi, boolean dependeDelStock);
+
+    void invalidar(Long idArticulo);
+
+    void invalidarTodo();
+
+    int cantidadEntradas();
+
+}
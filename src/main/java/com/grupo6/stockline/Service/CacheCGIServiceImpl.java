@@ -0,0 +1,97 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.evento.ArticuloActualizadoEvent;
+import com.grupo6.stockline.Service.evento.ArticuloDadoDeBajaEvent;
+import com.grupo6.stockline.Service.evento.ArticuloProveedorActualizadoEvent;
+import com.grupo6.stockline.Service.evento.ModeloInventarioCalculadoEvent;
+import com.grupo6.stockline.Service.evento.StockModificadoEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// CGI ya calculados por artículo. Una entrada vive hasta que cambia alguno de sus datos de entrada:
+// - demanda, costo de almacenamiento o proveedor predeterminado (ArticuloActualizadoEvent)
+// - costos del proveedor (ArticuloProveedorActualizadoEvent, el modelo se recalcula después) o lote vigente
+//   (ModeloInventarioCalculadoEvent)
+// - el stock, sólo para Intervalo Fijo, donde la cantidad a pedir es inventario máximo - stock (StockModificadoEvent)
+// Las invalidaciones corren después del commit, igual que el índice de faltantes.
+@Service
+public class CacheCGIServiceImpl implements CacheCGIService {
+
+    private record Entrada(double cgi, boolean dependeDelStock) {
+    }
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidación: un cálculo que leyó datos viejos no puede pisar la invalidación
+    private final Map<Long, Long> versiones = new ConcurrentHashMap<>();
+
+    @Override
+    public Double obtener(Long idArticulo) {
+        Entrada entrada = entradas.get(idArticulo);
+        return entrada != null ? entrada.cgi() : null;
+    }
+
+    @Override
+    public long version(Long idArticulo) {
+        return versiones.getOrDefault(idArticulo, 0L);
+    }
+
+    @Override
+    public void guardar(Long idArticulo, long version, double cgi, boolean dependeDelStock) {
+        // invalidar() sube la versión antes de quitar la entrada, y ambas operaciones se serializan por clave
+        entradas.compute(idArticulo, (id, actual) ->
+                version(id) == version ? new Entrada(cgi, dependeDelStock) : actual);
+    }
+
+    @Override
+    public void invalidar(Long idArticulo) {
+        versiones.merge(idArticulo, 1L, Long::sum);
+        entradas.remove(idArticulo);
+    }
+
+    @Override
+    public void invalidarTodo() {
+        for (Long idArticulo : entradas.keySet()) {
+            invalidar(idArticulo);
+        }
+    }
+
+    @Override
+    public int cantidadEntradas() {
+        return entradas.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarStock(StockModificadoEvent evento) {
+        for (Long idArticulo : evento.deltaPorArticulo().keySet()) {
+            // Sin entrada también se invalida: puede haber un cálculo en curso con el stock anterior
+            Entrada entrada = entradas.get(idArticulo);
+            if (entrada == null || entrada.dependeDelStock()) {
+                invalidar(idArticulo);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCalcularModelo(ModeloInventarioCalculadoEvent evento) {
+        invalidar(evento.idArticulo());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alActualizarArticulo(ArticuloActualizadoEvent evento) {
+        invalidar(evento.idArticulo());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alActualizarArticuloProveedor(ArticuloProveedorActualizadoEvent evento) {
+        invalidar(evento.idArticulo());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alDarDeBaja(ArticuloDadoDeBajaEvent evento) {
+        invalidar(evento.idArticulo());
+    }
+}
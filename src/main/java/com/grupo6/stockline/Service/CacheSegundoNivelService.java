@@ -0,0 +1,19 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.EstadisticasCacheDTO;
+
+public interface CacheSegundoNivelService {
+
+    // Regiones de entidades de referencia (ver ehcache.xml)
+    String REGION_PROVEEDOR = "proveedor";
+    String REGION_ARTICULO_PROVEEDOR = "articuloProveedor";
+    String REGION_DATOS_MODELO_INVENTARIO = "datosModeloInventario";
+
+    EstadisticasCacheDTO obtenerEstadisticas();
+
+    // Las escrituras por JDBC no pasan por Hibernate: quien las haga debe desalojar la región a mano
+    void desalojarRegion(String region);
+
+    void desalojarTodo();
+
+}
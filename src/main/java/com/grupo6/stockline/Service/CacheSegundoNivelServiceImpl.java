@@ -0,0 +1,58 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.EstadisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheSegundoNivelServiceImpl implements CacheSegundoNivelService {
+
+    private static final List<String> REGIONES = List.of(
+            REGION_PROVEEDOR, REGION_ARTICULO_PROVEEDOR, REGION_DATOS_MODELO_INVENTARIO);
+
+    private final SessionFactory sessionFactory;
+
+    public CacheSegundoNivelServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        Statistics estadisticas = sessionFactory.getStatistics();
+        List<EstadisticasCacheDTO.Region> regiones = new ArrayList<>();
+        for (String region : REGIONES) {
+            CacheRegionStatistics datos = estadisticas.getDomainDataRegionStatistics(region);
+            long elementos = datos.getElementCountInMemory();
+            regiones.add(new EstadisticasCacheDTO.Region(region,
+                    datos.getHitCount(), datos.getMissCount(), datos.getPutCount(),
+                    elementos == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ? null : elementos));
+        }
+        return new EstadisticasCacheDTO(regiones,
+                estadisticas.getQueryCacheHitCount(),
+                estadisticas.getQueryCacheMissCount(),
+                estadisticas.getQueryCachePutCount());
+    }
+
+    @Override
+    public void desalojarRegion(String region) {
+        if (!REGIONES.contains(region)) {
+            throw new IllegalArgumentException("Región de caché desconocida: " + region);
+        }
+        Cache cache = sessionFactory.getCache();
+        cache.evictRegion(region);
+        // Los resultados de consultas cacheadas pueden referenciar entidades de la región
+        cache.evictDefaultQueryRegion();
+    }
+
+    @Override
+    public void desalojarTodo() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+}
@@ -0,0 +1,171 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+
+// Fórmulas de los modelos de inventario, sin acceso a datos: las usan el cálculo por artículo y los procesos masivos.
+public final class CalculadoraModeloInventario {
+
+    public static final double DIAS_POR_ANIO = 360.0;
+    public static final double NIVEL_SERVICIO_POR_DEFECTO = 0.95;
+    // Variabilidad supuesta cuando el artículo todavía no tiene desvío medido desde sus ventas
+    public static final double VARIABILIDAD_SUPUESTA = 0.20;
+
+    private CalculadoraModeloInventario() {
+    }
+
+    // Demanda diaria a partir de la demanda anual del artículo
+    public static double demandaDiaria(double demandaAnual) {
+        return demandaAnual / DIAS_POR_ANIO;
+    }
+
+    public static double sigmaDiario(Double desviacionMedida, double demandaDiaria) {
+        return desviacionMedida != null ? desviacionMedida : demandaDiaria * VARIABILIDAD_SUPUESTA;
+    }
+
+    public static double valorZ(Double nivelServicio) {
+        return inversaNormal(nivelServicio != null ? nivelServicio : NIVEL_SERVICIO_POR_DEFECTO);
+    }
+
+    // EOQ: sqrt(2 * D * Cp / Ca)
+    public static int loteOptimo(double demandaAnual, double costoPedido, double costoAlmacenamiento) {
+        return (int) Math.round(Math.sqrt((2.0 * demandaAnual * costoPedido) / costoAlmacenamiento));
+    }
+
+    // z * sigma diario * raíz de los días expuestos (demora, o demora + revisión en intervalo fijo)
+    public static int stockSeguridad(double valorZ, double sigmaDiario, int diasRiesgo) {
+        return (int) Math.ceil(valorZ * sigmaDiario * Math.sqrt(diasRiesgo));
+    }
+
+    public static int puntoPedido(double demandaDiaria, int demoraEntrega, int stockSeguridad) {
+        return (int) Math.round(demandaDiaria * demoraEntrega) + stockSeguridad;
+    }
+
+    public static int inventarioMaximo(double demandaDiaria, int diasRiesgo, int stockSeguridad) {
+        return (int) Math.round(demandaDiaria * diasRiesgo) + stockSeguridad;
+    }
+
+    // Entradas del cálculo de un modelo: datos del artículo y de la asociación vigente con su proveedor predeterminado
+    // (costoPedido y demoraEntrega vienen de esa asociación; tieneAsociacion es false si no existe)
+    public record EntradasModelo(ModeloInventario modelo, boolean tieneProveedorPredeterminado, boolean tieneAsociacion,
+                                 Integer demandaAnual, Integer costoAlmacenamiento, Integer tiempoRevision,
+                                 Double nivelServicio, Double desviacionDemandaDiaria,
+                                 Double costoPedido, Integer demoraEntrega) {
+    }
+
+    // Lote fijo completa lote óptimo y punto de pedido; intervalo fijo, inventario máximo. demoraEntrega es la usada
+    public record ResultadoModelo(int loteOptimo, int puntoPedido, int stockSeguridad, int inventarioMaximo,
+                                  int demoraEntrega) {
+    }
+
+    // Validación y cálculo de un modelo, el mismo para el cálculo por artículo y el recálculo masivo.
+    // Datos inválidos se informan con IllegalStateException
+    public static ResultadoModelo calcularModelo(EntradasModelo entradas) {
+        if (entradas.modelo() == ModeloInventario.LoteFijo) {
+            return calcularLoteFijo(entradas);
+        }
+        if (entradas.modelo() == ModeloInventario.IntervaloFijo) {
+            return calcularIntervaloFijo(entradas);
+        }
+        throw new IllegalStateException("Modelo de inventario no soportado: " + entradas.modelo());
+    }
+
+    private static ResultadoModelo calcularLoteFijo(EntradasModelo entradas) {
+        validarComunes(entradas, "lote fijo");
+        if (!entradas.tieneAsociacion()) {
+            throw new IllegalStateException("No se puede calcular modelo de lote fijo: no existe configuración Artículo-Proveedor.");
+        }
+        if (entradas.costoPedido() == null || entradas.costoPedido() <= 0) {
+            throw new IllegalStateException("Costo de pedido no válido para modelo de lote fijo.");
+        }
+
+        double demandaAnual = entradas.demandaAnual();
+        double demandaDiaria = demandaDiaria(demandaAnual);
+        double sigmaDiario = sigmaDiario(entradas.desviacionDemandaDiaria(), demandaDiaria);
+        double valorZ = valorZ(entradas.nivelServicio());
+        int demoraEntrega = entradas.demoraEntrega() != null ? Math.max(entradas.demoraEntrega(), 0) : 0;
+
+        int loteOptimo = loteOptimo(demandaAnual, entradas.costoPedido(), entradas.costoAlmacenamiento());
+        if (loteOptimo <= 0) {
+            throw new IllegalStateException("Resultado de lote óptimo no válido (<= 0). Verifique los datos del artículo.");
+        }
+
+        int stockSeguridad = stockSeguridad(valorZ, sigmaDiario, demoraEntrega);
+        return new ResultadoModelo(loteOptimo, puntoPedido(demandaDiaria, demoraEntrega, stockSeguridad),
+                stockSeguridad, 0, demoraEntrega);
+    }
+
+    private static ResultadoModelo calcularIntervaloFijo(EntradasModelo entradas) {
+        validarComunes(entradas, "intervalo fijo");
+        if (entradas.tiempoRevision() == null || entradas.tiempoRevision() <= 0) {
+            throw new IllegalStateException("Tiempo de revisión no válido para modelo de intervalo fijo.");
+        }
+        if (!entradas.tieneAsociacion()) {
+            throw new IllegalStateException("No se puede calcular modelo de intervalo fijo: no existe configuración Artículo-Proveedor.");
+        }
+
+        double demandaDiaria = demandaDiaria(entradas.demandaAnual());
+        double sigmaDiario = sigmaDiario(entradas.desviacionDemandaDiaria(), demandaDiaria);
+        double valorZ = valorZ(entradas.nivelServicio());
+        int demoraEntrega = entradas.demoraEntrega() != null ? entradas.demoraEntrega() : 0;
+
+        int tiempoTotalRiesgo = demoraEntrega + entradas.tiempoRevision();
+        if (tiempoTotalRiesgo <= 0) {
+            throw new IllegalStateException("Tiempo total de riesgo (T + L) no válido para modelo de intervalo fijo.");
+        }
+
+        int stockSeguridad = stockSeguridad(valorZ, sigmaDiario, tiempoTotalRiesgo);
+        return new ResultadoModelo(0, 0, stockSeguridad,
+                inventarioMaximo(demandaDiaria, tiempoTotalRiesgo, stockSeguridad), demoraEntrega);
+    }
+
+    private static void validarComunes(EntradasModelo entradas, String nombreModelo) {
+        if (!entradas.tieneProveedorPredeterminado()) {
+            throw new IllegalStateException("No se puede calcular modelo de " + nombreModelo
+                    + ": el artículo no tiene proveedor predeterminado.");
+        }
+        if (entradas.demandaAnual() == null || entradas.demandaAnual() <= 0) {
+            throw new IllegalStateException("Demanda del artículo no válida para modelo de " + nombreModelo + ".");
+        }
+        if (entradas.costoAlmacenamiento() == null || entradas.costoAlmacenamiento() <= 0) {
+            throw new IllegalStateException("Costo de almacenamiento no válido para modelo de " + nombreModelo + ".");
+        }
+    }
+
+    // CGI = D*C + Cp*D/Q + Ca*Q/2
+    public static double cgi(double demandaAnual, double costoCompra, double costoPedido, double costoAlmacenamiento, double lote) {
+        return demandaAnual * costoCompra
+                + (costoPedido * demandaAnual) / lote
+                + (costoAlmacenamiento * lote) / 2.0;
+    }
+
+    // Inversa de la normal estándar (aproximación racional de Acklam, error relativo < 1.2e-9)
+    public static double inversaNormal(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("El nivel de servicio debe estar entre 0 y 1 (exclusivo): " + p);
+        }
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double pBajo = 0.02425;
+
+        if (p < pBajo) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - pBajo) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.grupo6.stockline.Service;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Codifica una posición keyset como texto apto para URL: dirección y, por cada columna de orden,
+// nombre, tipo y valor (que puede ser nulo). Un cursor que no corresponde al orden pedido se ignora y se
+// vuelve al inicio; un cursor mal formado es un error.
+final class CursorKeyset {
+
+    // Claves de la fila desde la que se sigue (null: inicio del listado); "adelante" = filas posteriores a ella
+    record Posicion(boolean adelante, Map<String, Object> claves) {
+
+        static final Posicion INICIO = new Posicion(true, null);
+
+        boolean esInicio() {
+            return claves == null;
+        }
+    }
+
+    private static final String PAQUETE_ENUMS = "com.grupo6.stockline.Enum.";
+
+    private CursorKeyset() {
+    }
+
+    static String codificar(boolean adelante, Map<String, Object> claves) {
+        StringBuilder texto = new StringBuilder(adelante ? "F" : "B");
+        for (Map.Entry<String, Object> clave : claves.entrySet()) {
+            texto.append('\n').append(clave.getKey()).append('=').append(codificarValor(clave.getValue()));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Posicion decodificar(String cursor, Sort orden) {
+        if (cursor == null || cursor.isBlank()) {
+            return Posicion.INICIO;
+        }
+
+        Map<String, Object> claves = new LinkedHashMap<>();
+        String[] lineas;
+        try {
+            lineas = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n");
+            for (int i = 1; i < lineas.length; i++) {
+                int igual = lineas[i].indexOf('=');
+                claves.put(lineas[i].substring(0, igual), decodificarValor(lineas[i].substring(igual + 1)));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de página inválido.", e);
+        }
+
+        Set<String> propiedades = new HashSet<>();
+        orden.forEach(o -> propiedades.add(o.getProperty()));
+        if (!claves.keySet().equals(propiedades) || claves.get("id") == null) {
+            return Posicion.INICIO;
+        }
+
+        return new Posicion(!"B".equals(lineas[0]), claves);
+    }
+
+    private static String codificarValor(Object valor) {
+        if (valor == null) return "N:";
+        if (valor instanceof Long) return "L:" + valor;
+        if (valor instanceof Integer) return "I:" + valor;
+        if (valor instanceof Double) return "D:" + valor;
+        if (valor instanceof Boolean) return "B:" + valor;
+        if (valor instanceof LocalDateTime) return "T:" + valor;
+        if (valor instanceof LocalDate) return "F:" + valor;
+        if (valor instanceof Enum<?> e) return "E:" + e.getDeclaringClass().getName() + ":" + e.name();
+        return "S:" + valor;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object decodificarValor(String texto) {
+        String valor = texto.substring(2);
+        return switch (texto.charAt(0)) {
+            case 'N' -> null;
+            case 'L' -> Long.valueOf(valor);
+            case 'I' -> Integer.valueOf(valor);
+            case 'D' -> Double.valueOf(valor);
+            case 'B' -> Boolean.valueOf(valor);
+            case 'T' -> LocalDateTime.parse(valor);
+            case 'F' -> LocalDate.parse(valor);
+            case 'E' -> {
+                int separador = valor.lastIndexOf(':');
+                String clase = valor.substring(0, separador);
+                if (!clase.startsWith(PAQUETE_ENUMS)) {
+                    throw new IllegalArgumentException("Tipo de cursor no permitido: " + clase);
+                }
+                try {
+                    yield Enum.valueOf((Class<? extends Enum>) Class.forName(clase), valor.substring(separador + 1));
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+            default -> valor;
+        };
+    }
+}
@@ -3,7 +3,14 @@ package com.grupo6.stockline.Service;
 import com.grupo6.stockline.Entities.Articulo;
 import com.grupo6.stockline.Entities.DatosModeloInventario;
 
+import java.util.Map;
+
 public interface DatosModeloInventarioService extends BaseService<DatosModeloInventario, Long>{
 
     DatosModeloInventario obtenerDatosModeloInventarioActivo(Articulo articulo);
+
+    DatosModeloInventario obtenerDatosModeloInventarioActivo(Long idArticulo);
+
+    // Datos vigentes de todos los artículos en una sola consulta, por id de artículo
+    Map<Long, DatosModeloInventario> obtenerDatosActivosPorArticulo();
 }
@@ -9,6 +9,9 @@ import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class DatosModeloInventarioServiceImpl extends BaseServiceImpl<DatosModeloInventario, Long> implements DatosModeloInventarioService{
     @Autowired
@@ -23,13 +26,21 @@ public class DatosModeloInventarioServiceImpl extends BaseServiceImpl<DatosModel
 
     @Override
     public DatosModeloInventario obtenerDatosModeloInventarioActivo(Articulo articulo) {
-        if (articulo.getDatosModeloInventario() != null) {
-            for (DatosModeloInventario datos : articulo.getDatosModeloInventario()) {
-                if (datos.getFechaBaja() == null) {
-                    return datos;
-                }
-            }
+        return obtenerDatosModeloInventarioActivo(articulo.getId());
+    }
+
+    @Override
+    public DatosModeloInventario obtenerDatosModeloInventarioActivo(Long idArticulo) {
+        return datosModeloInventarioRepository.findFirstByArticuloIdAndFechaBajaIsNullOrderByIdDesc(idArticulo)
+                .orElse(null);
+    }
+
+    @Override
+    public Map<Long, DatosModeloInventario> obtenerDatosActivosPorArticulo() {
+        Map<Long, DatosModeloInventario> datosPorArticulo = new HashMap<>();
+        for (DatosModeloInventario datos : datosModeloInventarioRepository.obtenerDatosActivos()) {
+            datosPorArticulo.put(datos.getArticulo().getId(), datos);
         }
-        return null;
+        return datosPorArticulo;
     }
 }
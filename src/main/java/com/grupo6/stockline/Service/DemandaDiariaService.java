@@ -0,0 +1,13 @@
+package com.grupo6.stockline.Service;
+
+import java.time.LocalDate;
+
+public interface DemandaDiariaService {
+
+    // Recalcula el resumen diario de [desde, hasta) desde las ventas, por tramos; devuelve las filas generadas
+    int reconstruir(LocalDate desde, LocalDate hasta);
+
+    // Recalcula todo el historial, desde la primera venta hasta hoy inclusive
+    int reconstruirTodo();
+
+}
@@ -0,0 +1,71 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.DemandaDiariaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Carga inicial y reparación del resumen demanda_diaria. En régimen lo mantiene crearVenta;
+// este proceso sólo recorre el historial de ventas, un tramo de días por transacción para no
+// retener bloqueos largos. Un tramo que incluya el día en curso conviene correrlo con poca actividad:
+// una venta que se confirme mientras se reconstruye ese tramo puede quedar fuera.
+@Service
+public class DemandaDiariaServiceImpl implements DemandaDiariaService {
+
+    private final DemandaDiariaRepository demandaDiariaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int diasPorTramo;
+    private final boolean completarAlIniciar;
+
+    public DemandaDiariaServiceImpl(DemandaDiariaRepository demandaDiariaRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${stockline.demanda-diaria.dias-por-tramo:7}") int diasPorTramo,
+                                    @Value("${stockline.demanda-diaria.completar-al-iniciar:true}") boolean completarAlIniciar) {
+        this.demandaDiariaRepository = demandaDiariaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.diasPorTramo = diasPorTramo;
+        this.completarAlIniciar = completarAlIniciar;
+    }
+
+    @Override
+    public int reconstruir(LocalDate desde, LocalDate hasta) {
+        int filas = 0;
+        for (LocalDate inicio = desde; inicio.isBefore(hasta); inicio = inicio.plusDays(diasPorTramo)) {
+            LocalDate fin = inicio.plusDays(diasPorTramo).isBefore(hasta) ? inicio.plusDays(diasPorTramo) : hasta;
+            LocalDate tramoDesde = inicio;
+            filas += transactionTemplate.execute(status -> demandaDiariaRepository.reconstruirRango(tramoDesde, fin));
+        }
+        return filas;
+    }
+
+    @Override
+    public int reconstruirTodo() {
+        LocalDateTime primeraVenta = demandaDiariaRepository.obtenerFechaPrimeraVenta();
+        if (primeraVenta == null) {
+            return 0;
+        }
+        return reconstruir(primeraVenta.toLocalDate(), LocalDate.now().plusDays(1));
+    }
+
+    // Primera puesta en marcha con historial: el resumen todavía está vacío
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarSiEstaVacio() {
+        if (!completarAlIniciar || demandaDiariaRepository.count() > 0) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        int filas = reconstruirTodo();
+        if (filas > 0) {
+            System.out.println("Resumen de demanda diaria generado: " + filas + " filas en "
+                    + (System.currentTimeMillis() - inicio) + " ms");
+        }
+    }
+}
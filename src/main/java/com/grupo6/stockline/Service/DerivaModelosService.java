@@ -0,0 +1,13 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ResultadoDerivaDTO;
+
+public interface DerivaModelosService {
+
+    // Lista de trabajo ordenada por deriva, sin recalcular nada
+    ResultadoDerivaDTO detectar();
+
+    // Detecta y recalcula los artículos de la lista de trabajo con el pool de trabajadores
+    ResultadoDerivaDTO procesar();
+
+}
@@ -0,0 +1,184 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository;
+import com.grupo6.stockline.Service.dto.ResultadoDerivaDTO;
+import com.grupo6.stockline.Service.dto.ResultadoDerivaDTO.Deriva;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Detector de deriva: compara las entradas guardadas en cada modelo vigente (demanda, demora y costos) con los valores
+// actuales del artículo y su proveedor predeterminado. Sólo los artículos cuya mayor variación relativa supera el
+// umbral entran en la lista de trabajo, ordenada de mayor a menor deriva y acotada, que recalcula un pool fijo de
+// trabajadores con las entradas actuales. La demanda del artículo no se toca acá: la mide la recalibración semanal
+// (RecalibracionDemandaServiceImpl) y este proceso sólo detecta que el modelo quedó atrás.
+@Service
+public class DerivaModelosServiceImpl implements DerivaModelosService {
+
+    static final String CAUSA_DEMANDA = "DEMANDA";
+    static final String CAUSA_DEMORA_ENTREGA = "DEMORA_ENTREGA";
+    static final String CAUSA_COSTO_PEDIDO = "COSTO_PEDIDO";
+    static final String CAUSA_COSTO_ALMACENAMIENTO = "COSTO_ALMACENAMIENTO";
+    // Modelo calculado antes de que se guardaran sus entradas: se recalcula con la menor prioridad
+    static final String CAUSA_SIN_REFERENCIA = "SIN_REFERENCIA";
+
+    private final DatosModeloInventarioRepository datosRepository;
+    private final ArticuloService articuloService;
+    private final double umbral;
+    private final int maximoArticulos;
+    private final ThreadPoolExecutor ejecutor;
+
+    public DerivaModelosServiceImpl(DatosModeloInventarioRepository datosRepository,
+                                    ArticuloService articuloService,
+                                    @Value("${stockline.deriva.umbral:0.15}") double umbral,
+                                    @Value("${stockline.deriva.maximo-articulos:500}") int maximoArticulos,
+                                    @Value("${stockline.deriva.hilos:2}") int hilos) {
+        this.datosRepository = datosRepository;
+        this.articuloService = articuloService;
+        this.umbral = umbral;
+        this.maximoArticulos = maximoArticulos;
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        // Cola acotada al tamaño de la lista de trabajo; si se llena, el hilo que encola recalcula (contrapresión)
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(maximoArticulos, 1)),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "deriva-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public ResultadoDerivaDTO detectar() {
+        List<DatosModeloInventarioRepository.EntradasModeloProyeccion> modelos = datosRepository.obtenerEntradasModelosVigentes();
+        List<Deriva> conDeriva = new ArrayList<>();
+        for (DatosModeloInventarioRepository.EntradasModeloProyeccion modelo : modelos) {
+            Deriva deriva = evaluar(modelo);
+            if (deriva != null) {
+                conDeriva.add(deriva);
+            }
+        }
+
+        conDeriva.sort(Comparator.comparingDouble(Deriva::deriva).reversed());
+        List<Deriva> trabajos = conDeriva.size() > maximoArticulos
+                ? List.copyOf(conDeriva.subList(0, maximoArticulos))
+                : List.copyOf(conDeriva);
+        return new ResultadoDerivaDTO(modelos.size(), conDeriva.size(), 0, 0, trabajos);
+    }
+
+    @Override
+    @Scheduled(cron = "${stockline.deriva.cron:0 0 4 * * *}")
+    public synchronized ResultadoDerivaDTO procesar() {
+        ResultadoDerivaDTO deteccion = detectar();
+
+        // Se encolan en orden de prioridad: los de mayor deriva son los primeros en tomarse
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Deriva deriva : deteccion.trabajos()) {
+            tareas.add(ejecutor.submit(() -> {
+                recalcular(deriva);
+                return null;
+            }));
+        }
+
+        int recalculados = 0;
+        int errores = 0;
+        for (int i = 0; i < tareas.size(); i++) {
+            try {
+                tareas.get(i).get();
+                recalculados++;
+            } catch (ExecutionException e) {
+                errores++;
+                System.err.println("No se pudo recalcular el modelo del artículo "
+                        + deteccion.trabajos().get(i).idArticulo() + ": " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Se interrumpió el recálculo por deriva.", e);
+            }
+        }
+
+        return new ResultadoDerivaDTO(deteccion.analizados(), deteccion.conDeriva(), recalculados, errores,
+                deteccion.trabajos());
+    }
+
+    private Deriva evaluar(DatosModeloInventarioRepository.EntradasModeloProyeccion modelo) {
+        if (modelo.getDemandaReferencia() == null || modelo.getCostoAlmacenamientoReferencia() == null) {
+            return new Deriva(modelo.getIdArticulo(), umbral, CAUSA_SIN_REFERENCIA);
+        }
+
+        double maxima = 0;
+        String causa = null;
+
+        // Demanda anual vigente del artículo (la cambian el formulario y la recalibración)
+        if (modelo.getDemandaArticulo() != null) {
+            double variacion = variacion(modelo.getDemandaReferencia(), modelo.getDemandaArticulo());
+            if (variacion > maxima) {
+                maxima = variacion;
+                causa = CAUSA_DEMANDA;
+            }
+        }
+
+        if (modelo.getDemoraEntregaReferencia() != null) {
+            int demora = modelo.getDemoraEntrega() != null ? modelo.getDemoraEntrega() : 0;
+            // Las demoras son días: una diferencia de 1 sobre 0 cuenta como 100%
+            double variacion = Math.abs(demora - modelo.getDemoraEntregaReferencia())
+                    / (double) Math.max(modelo.getDemoraEntregaReferencia(), 1);
+            if (variacion > maxima) {
+                maxima = variacion;
+                causa = CAUSA_DEMORA_ENTREGA;
+            }
+        }
+
+        if (modelo.getCostoPedidoReferencia() != null && modelo.getCostoPedido() != null) {
+            double variacion = variacion(modelo.getCostoPedidoReferencia(), modelo.getCostoPedido());
+            if (variacion > maxima) {
+                maxima = variacion;
+                causa = CAUSA_COSTO_PEDIDO;
+            }
+        }
+
+        if (modelo.getCostoAlmacenamiento() != null) {
+            double variacion = variacion(modelo.getCostoAlmacenamientoReferencia(), modelo.getCostoAlmacenamiento());
+            if (variacion > maxima) {
+                maxima = variacion;
+                causa = CAUSA_COSTO_ALMACENAMIENTO;
+            }
+        }
+
+        if (maxima <= umbral) {
+            return null;
+        }
+        return new Deriva(modelo.getIdArticulo(), maxima, causa);
+    }
+
+    private static double variacion(Number referencia, double actual) {
+        double base = referencia.doubleValue();
+        if (base <= 0) {
+            return actual > 0 ? Double.POSITIVE_INFINITY : 0;
+        }
+        return Math.abs(actual - base) / base;
+    }
+
+    // Con las entradas actuales: el modelo nuevo guarda esas entradas como referencia y deja de tener deriva
+    private void recalcular(Deriva deriva) throws Exception {
+        articuloService.calcularModeloInventario(deriva.idArticulo());
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
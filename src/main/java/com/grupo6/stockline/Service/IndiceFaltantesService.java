@@ -0,0 +1,15 @@
+package com.grupo6.stockline.Service;
+
+import java.util.List;
+
+public interface IndiceFaltantesService {
+
+    // Ids de los artículos activos con stock actual menor o igual a su stock de seguridad, ordenados
+    List<Long> listarIds();
+
+    boolean esFaltante(Long idArticulo);
+
+    // Recarga el índice completo desde la base (arranque y recuperación)
+    void reconstruir();
+
+}
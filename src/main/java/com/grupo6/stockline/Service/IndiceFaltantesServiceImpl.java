@@ -0,0 +1,138 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Service.evento.ArticuloDadoDeBajaEvent;
+import com.grupo6.stockline.Service.evento.ModeloInventarioCalculadoEvent;
+import com.grupo6.stockline.Service.evento.StockModificadoEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice en memoria de artículos faltantes (stock actual <= stock de seguridad vigente).
+// Se mantiene con los deltas de cada movimiento de stock y con cada recálculo del modelo, siempre después
+// del commit, así que consultar el listado cuesta lo mismo que el tamaño del resultado.
+// Sólo se indexan artículos activos con datos de modelo vigentes (los únicos que pueden faltar).
+@Service
+public class IndiceFaltantesServiceImpl implements IndiceFaltantesService {
+
+    private final ArticuloRepository articuloRepository;
+    private final StockEnMemoriaService stockEnMemoriaService;
+
+    private volatile Map<Long, EstadoArticulo> estados = new ConcurrentHashMap<>();
+    private volatile Set<Long> faltantes = ConcurrentHashMap.newKeySet();
+
+    public IndiceFaltantesServiceImpl(ArticuloRepository articuloRepository,
+                                      StockEnMemoriaService stockEnMemoriaService) {
+        this.articuloRepository = articuloRepository;
+        this.stockEnMemoriaService = stockEnMemoriaService;
+    }
+
+    private static final class EstadoArticulo {
+        private int stock;
+        private int stockSeguridad;
+
+        private EstadoArticulo(int stock, int stockSeguridad) {
+            this.stock = stock;
+            this.stockSeguridad = stockSeguridad;
+        }
+    }
+
+    @Override
+    public List<Long> listarIds() {
+        List<Long> ids = new ArrayList<>(faltantes);
+        ids.sort(null);
+        return ids;
+    }
+
+    @Override
+    public boolean esFaltante(Long idArticulo) {
+        return faltantes.contains(idArticulo);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarStock(StockModificadoEvent evento) {
+        for (Map.Entry<Long, Integer> delta : evento.deltaPorArticulo().entrySet()) {
+            EstadoArticulo estado = estados.get(delta.getKey());
+            if (estado == null) {
+                continue;
+            }
+            synchronized (estado) {
+                estado.stock += delta.getValue();
+                reevaluar(delta.getKey(), estado);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCalcularModelo(ModeloInventarioCalculadoEvent evento) {
+        Long idArticulo = evento.idArticulo();
+        int stockSeguridad = evento.stockSeguridad() != null ? evento.stockSeguridad() : 0;
+
+        EstadoArticulo estado = estados.get(idArticulo);
+        if (estado == null) {
+            // Primer modelo del artículo: se toma el stock vigente como punto de partida
+            EstadoArticulo nuevo = new EstadoArticulo(stockVigente(idArticulo), stockSeguridad);
+            estado = estados.putIfAbsent(idArticulo, nuevo);
+            if (estado == null) {
+                estado = nuevo;
+            }
+        }
+        synchronized (estado) {
+            estado.stockSeguridad = stockSeguridad;
+            reevaluar(idArticulo, estado);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alDarDeBaja(ArticuloDadoDeBajaEvent evento) {
+        estados.remove(evento.idArticulo());
+        faltantes.remove(evento.idArticulo());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        Map<Long, EstadoArticulo> nuevosEstados = new ConcurrentHashMap<>();
+        Set<Long> nuevosFaltantes = ConcurrentHashMap.newKeySet();
+
+        for (ArticuloRepository.StockSeguridadProyeccion fila : articuloRepository.obtenerStockSeguridadVigente()) {
+            int stock = stockEnMemoriaService.estaHabilitado()
+                    ? stockEnMemoriaService.consultarStock(fila.getId())
+                    : (fila.getStockActual() != null ? fila.getStockActual() : 0);
+            int stockSeguridad = fila.getStockSeguridad() != null ? fila.getStockSeguridad() : 0;
+
+            nuevosEstados.put(fila.getId(), new EstadoArticulo(stock, stockSeguridad));
+            if (stock <= stockSeguridad) {
+                nuevosFaltantes.add(fila.getId());
+            }
+        }
+
+        estados = nuevosEstados;
+        faltantes = nuevosFaltantes;
+        System.out.println("Índice de faltantes reconstruido: " + nuevosFaltantes.size() + " de " + nuevosEstados.size() + " artículos");
+    }
+
+    private void reevaluar(Long idArticulo, EstadoArticulo estado) {
+        if (estado.stock <= estado.stockSeguridad) {
+            faltantes.add(idArticulo);
+        } else {
+            faltantes.remove(idArticulo);
+        }
+    }
+
+    private int stockVigente(Long idArticulo) {
+        if (stockEnMemoriaService.estaHabilitado()) {
+            return stockEnMemoriaService.consultarStock(idArticulo);
+        }
+        Integer stock = articuloRepository.obtenerStockActual(idArticulo);
+        return stock != null ? stock : 0;
+    }
+}
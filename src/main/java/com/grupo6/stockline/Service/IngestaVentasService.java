@@ -0,0 +1,12 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ReporteLoteVentasDTO;
+
+import java.io.InputStream;
+
+public interface IngestaVentasService {
+
+    // formato: "jsonl" o "csv"; si es null se detecta por el primer carácter del archivo
+    ReporteLoteVentasDTO procesarLote(InputStream contenido, String formato) throws Exception;
+
+}
@@ -0,0 +1,341 @@
+package com.grupo6.stockline.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.DetalleVenta;
+import com.grupo6.stockline.Entities.Venta;
+import com.grupo6.stockline.Service.dto.ReporteLoteVentasDTO;
+import com.grupo6.stockline.Service.dto.ResultadoTicketDTO;
+import com.grupo6.stockline.Service.dto.TicketLoteDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Service
+public class IngestaVentasServiceImpl implements IngestaVentasService {
+
+    private final VentaService ventaService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int tamanoBloque;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IngestaVentasServiceImpl(VentaService ventaService,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${stockline.venta-lote.tamano-bloque:200}") int tamanoBloque) {
+        this.ventaService = ventaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.tamanoBloque = Math.max(1, tamanoBloque);
+    }
+
+    @Override
+    public ReporteLoteVentasDTO procesarLote(InputStream contenido, String formato) throws Exception {
+        long inicio = System.currentTimeMillis();
+        List<ResultadoTicketDTO> resultados = new ArrayList<>();
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))) {
+            Iterator<LecturaTicket> tickets = crearLector(lector, formato);
+            List<LecturaTicket> bloque = new ArrayList<>(tamanoBloque);
+
+            while (tickets.hasNext()) {
+                LecturaTicket lectura = tickets.next();
+                if (lectura.error() != null) {
+                    resultados.add(ResultadoTicketDTO.rechazado(lectura.ticket().ticket(), lectura.linea(), lectura.error()));
+                    continue;
+                }
+
+                bloque.add(lectura);
+                if (bloque.size() == tamanoBloque) {
+                    procesarBloque(bloque, resultados);
+                    bloque.clear();
+                }
+            }
+            procesarBloque(bloque, resultados);
+        } catch (UncheckedIOException e) {
+            throw new Exception("Error al leer el lote de ventas: " + e.getCause().getMessage(), e);
+        }
+
+        resultados.sort(Comparator.comparingLong(ResultadoTicketDTO::linea));
+        int registrados = (int) resultados.stream().filter(ResultadoTicketDTO::registrado).count();
+        return new ReporteLoteVentasDTO(
+                resultados.size(),
+                registrados,
+                resultados.size() - registrados,
+                System.currentTimeMillis() - inicio,
+                resultados
+        );
+    }
+
+    // =========================================================
+    // COMMIT POR BLOQUES
+    // =========================================================
+
+    private void procesarBloque(List<LecturaTicket> bloque, List<ResultadoTicketDTO> resultados) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+
+        // Caso normal: todo el bloque en una sola transacción
+        try {
+            List<ResultadoTicketDTO> registrados = transactionTemplate.execute(status -> {
+                List<ResultadoTicketDTO> parciales = new ArrayList<>(bloque.size());
+                for (LecturaTicket lectura : bloque) {
+                    parciales.add(registrar(lectura));
+                    // Contexto de persistencia acotado: cada venta ya quedó escrita
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                return parciales;
+            });
+            resultados.addAll(registrados);
+            return;
+        } catch (RuntimeException e) {
+            // Algún ticket no cumple las reglas de crearVenta, o falló el flush o el commit del bloque
+            // (restricción, bloqueo): se revierte el bloque y se reintenta uno a uno
+        }
+
+        for (LecturaTicket lectura : bloque) {
+            try {
+                resultados.add(transactionTemplate.execute(status -> registrar(lectura)));
+            } catch (RuntimeException e) {
+                resultados.add(ResultadoTicketDTO.rechazado(lectura.ticket().ticket(), lectura.linea(), motivo(e)));
+            }
+        }
+    }
+
+    // Las reglas de crearVenta ya traen un mensaje para el usuario; en los errores de la base se informa la causa
+    private static String motivo(RuntimeException e) {
+        if (e instanceof TicketRechazadoException) {
+            return e.getMessage();
+        }
+        Throwable causa = e;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return "No se pudo registrar la venta: " + (causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName());
+    }
+
+    private ResultadoTicketDTO registrar(LecturaTicket lectura) {
+        try {
+            Venta venta = ventaService.crearVenta(armarVenta(lectura.ticket()));
+            return ResultadoTicketDTO.registrado(lectura.ticket().ticket(), lectura.linea(), venta.getId(), venta.getTotalVenta());
+        } catch (Exception e) {
+            throw new TicketRechazadoException(e.getMessage(), e);
+        }
+    }
+
+    private Venta armarVenta(TicketLoteDTO ticket) {
+        Venta venta = new Venta();
+        for (TicketLoteDTO.LineaTicketDTO linea : ticket.detalles()) {
+            Articulo articulo = new Articulo();
+            articulo.setId(linea.articulo());
+
+            DetalleVenta detalle = new DetalleVenta();
+            detalle.setArticulo(articulo);
+            detalle.setCantidad(linea.cantidad());
+            venta.getDetalleVenta().add(detalle);
+        }
+        return venta;
+    }
+
+    private static class TicketRechazadoException extends RuntimeException {
+        TicketRechazadoException(String mensaje, Throwable causa) {
+            super(mensaje, causa);
+        }
+    }
+
+    // =========================================================
+    // LECTURA EN STREAMING (JSON LINES / CSV)
+    // =========================================================
+
+    private record LecturaTicket(TicketLoteDTO ticket, long linea, String error) {
+    }
+
+    private Iterator<LecturaTicket> crearLector(BufferedReader lector, String formato) throws IOException {
+        if (formato == null || formato.isBlank()) {
+            // Se espía el primer carácter sin consumirlo
+            lector.mark(1);
+            int primero = lector.read();
+            while (primero != -1 && Character.isWhitespace(primero)) {
+                lector.mark(1);
+                primero = lector.read();
+            }
+            lector.reset();
+            formato = primero == '{' ? "jsonl" : "csv";
+        }
+
+        return switch (formato.toLowerCase()) {
+            case "jsonl", "ndjson", "json" -> new LectorJsonLines(lector);
+            case "csv" -> new LectorCsv(lector);
+            default -> throw new IllegalArgumentException("Formato de lote no soportado: " + formato);
+        };
+    }
+
+    private static String validar(TicketLoteDTO ticket) {
+        if (ticket.detalles() == null || ticket.detalles().isEmpty()) {
+            return "El ticket no tiene detalles.";
+        }
+        for (TicketLoteDTO.LineaTicketDTO linea : ticket.detalles()) {
+            if (linea.articulo() == null) {
+                return "El artículo no existe.";
+            }
+            if (linea.cantidad() == null || linea.cantidad() <= 0) {
+                return "La cantidad debe ser mayor a cero.";
+            }
+        }
+        return null;
+    }
+
+    private static String leerLinea(BufferedReader lector) {
+        try {
+            return lector.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Un ticket por línea: {"ticket":"T-1","detalles":[{"articulo":3,"cantidad":2}]}
+    private class LectorJsonLines implements Iterator<LecturaTicket> {
+
+        private final BufferedReader lector;
+        private long numeroLinea = 0;
+        private LecturaTicket siguiente;
+
+        LectorJsonLines(BufferedReader lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (siguiente == null) {
+                String linea = leerLinea(lector);
+                if (linea == null) {
+                    return false;
+                }
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    TicketLoteDTO ticket = objectMapper.readValue(linea, TicketLoteDTO.class);
+                    siguiente = new LecturaTicket(ticket, numeroLinea, validar(ticket));
+                } catch (JsonProcessingException e) {
+                    siguiente = new LecturaTicket(new TicketLoteDTO(null, List.of()), numeroLinea,
+                            "Formato JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public LecturaTicket next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LecturaTicket actual = siguiente;
+            siguiente = null;
+            return actual;
+        }
+    }
+
+    // Una línea por detalle: ticket,articulo,cantidad. Las filas consecutivas con el mismo ticket forman una venta.
+    private static class LectorCsv implements Iterator<LecturaTicket> {
+
+        private final BufferedReader lector;
+        private long numeroLinea = 0;
+        private String[] filaPendiente;
+        private long lineaPendiente;
+        private LecturaTicket siguiente;
+
+        LectorCsv(BufferedReader lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (siguiente != null) {
+                return true;
+            }
+
+            String[] fila = filaPendiente != null ? filaPendiente : leerFila();
+            long lineaInicio = filaPendiente != null ? lineaPendiente : numeroLinea;
+            filaPendiente = null;
+            if (fila == null) {
+                return false;
+            }
+
+            String codigo = fila[0];
+            List<TicketLoteDTO.LineaTicketDTO> detalles = new ArrayList<>();
+            String error = null;
+
+            while (fila != null && fila[0].equals(codigo)) {
+                if (error == null) {
+                    try {
+                        detalles.add(new TicketLoteDTO.LineaTicketDTO(
+                                Long.parseLong(fila[1]), Integer.parseInt(fila[2])));
+                    } catch (RuntimeException e) {
+                        error = "Línea " + numeroLinea + ": se esperaba ticket,articulo,cantidad";
+                    }
+                }
+                fila = leerFila();
+            }
+
+            if (fila != null) {
+                filaPendiente = fila;
+                lineaPendiente = numeroLinea;
+            }
+
+            TicketLoteDTO ticket = new TicketLoteDTO(codigo, detalles);
+            siguiente = new LecturaTicket(ticket, lineaInicio, error != null ? error : validar(ticket));
+            return true;
+        }
+
+        @Override
+        public LecturaTicket next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LecturaTicket actual = siguiente;
+            siguiente = null;
+            return actual;
+        }
+
+        private String[] leerFila() {
+            String linea;
+            do {
+                linea = leerLinea(lector);
+                if (linea == null) {
+                    return null;
+                }
+                numeroLinea++;
+            } while (linea.isBlank() || (numeroLinea == 1 && linea.toLowerCase().startsWith("ticket")));
+
+            String[] campos = linea.split(",", -1);
+            for (int i = 0; i < campos.length; i++) {
+                campos[i] = campos[i].trim();
+            }
+            return campos.length >= 3 ? campos : new String[]{campos[0], "", ""};
+        }
+    }
+}
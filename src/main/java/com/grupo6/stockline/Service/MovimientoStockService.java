@@ -0,0 +1,27 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface MovimientoStockService {
+
+    // Agrega un movimiento por artículo (delta con signo) en la transacción en curso
+    void registrar(TipoMovimientoStock tipo, Long idReferencia, Map<Long, Integer> deltaPorArticulo);
+
+    // Apertura del libro para los artículos dados (los que ya la tienen se ignoran), en la transacción en curso
+    void abrirLibro(List<Long> idsArticulo);
+
+    // Apertura de todos los artículos que todavía no entraron al libro. Devuelve cuántos abrió.
+    int abrirLibroFaltantes();
+
+    // Stock del artículo en un instante: último snapshot anterior más los movimientos posteriores.
+    // IllegalArgumentException si el instante es anterior a la apertura del artículo en el libro
+    int calcularStock(Long idArticulo, LocalDateTime momento);
+
+    // Genera un snapshot para cada artículo con movimientos desde el corte anterior. Devuelve cuántos generó.
+    int generarSnapshots();
+
+}
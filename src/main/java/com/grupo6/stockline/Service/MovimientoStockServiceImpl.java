@@ -0,0 +1,171 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.MovimientoStock;
+import com.grupo6.stockline.Entities.SnapshotStock;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
+import com.grupo6.stockline.Repositories.MovimientoStockRepository;
+import com.grupo6.stockline.Repositories.SnapshotStockRepository;
+import com.grupo6.stockline.Service.evento.StockModificadoEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Libro de movimientos de stock: cada venta, ajuste o recepción de compra agrega filas (nunca las modifica).
+// Cada artículo entra al libro con un movimiento de apertura (al darse de alta, o al arrancar para los que ya
+// existían), así que la suma de sus movimientos es su stock desde ese momento; antes no hay registro.
+// Un proceso periódico consolida los movimientos en snapshots por artículo, de modo que el stock en cualquier
+// instante se obtiene con el snapshot previo más una cola acotada de movimientos.
+@Service
+public class MovimientoStockServiceImpl implements MovimientoStockService {
+
+    private final MovimientoStockRepository movimientoStockRepository;
+    private final SnapshotStockRepository snapshotStockRepository;
+    private static final int TAMANO_TRAMO_APERTURA = 500;
+
+    private final StockEnMemoriaService stockEnMemoriaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long margenSegundos;
+
+    public MovimientoStockServiceImpl(MovimientoStockRepository movimientoStockRepository,
+                                      SnapshotStockRepository snapshotStockRepository,
+                                      StockEnMemoriaService stockEnMemoriaService,
+                                      PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${stockline.snapshot-stock.margen-segundos:60}") long margenSegundos) {
+        this.movimientoStockRepository = movimientoStockRepository;
+        this.snapshotStockRepository = snapshotStockRepository;
+        this.stockEnMemoriaService = stockEnMemoriaService;
+        // Cada tramo de aperturas confirma por su cuenta aunque se llame desde generarSnapshots (@Transactional):
+        // unido a la transacción externa, el FOR UPDATE retendría los artículos durante todo el corte
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.margenSegundos = margenSegundos;
+    }
+
+    @Override
+    public void registrar(TipoMovimientoStock tipo, Long idReferencia, Map<Long, Integer> deltaPorArticulo) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<MovimientoStock> movimientos = new ArrayList<>(deltaPorArticulo.size());
+        for (Map.Entry<Long, Integer> delta : deltaPorArticulo.entrySet()) {
+            Articulo articulo = new Articulo();
+            articulo.setId(delta.getKey());
+
+            // Con el stock en memoria el movimiento queda pendiente hasta el próximo volcado
+            MovimientoStock movimiento = new MovimientoStock(delta.getValue(), idReferencia, tipo,
+                    !stockEnMemoriaService.estaHabilitado(), articulo);
+            movimiento.setFechaAlta(ahora);
+            movimientos.add(movimiento);
+        }
+        movimientoStockRepository.insertarEnLote(movimientos);
+        eventPublisher.publishEvent(new StockModificadoEvent(deltaPorArticulo));
+    }
+
+    @Override
+    public void abrirLibro(List<Long> idsArticulo) {
+        movimientoStockRepository.registrarAperturas(idsArticulo);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int abrirLibroFaltantes() {
+        List<Long> sinApertura = movimientoStockRepository.obtenerArticulosSinApertura();
+        // Tramos cortos: cada uno bloquea sus artículos sólo durante su propia transacción
+        for (int desde = 0; desde < sinApertura.size(); desde += TAMANO_TRAMO_APERTURA) {
+            List<Long> tramo = sinApertura.subList(desde, Math.min(desde + TAMANO_TRAMO_APERTURA, sinApertura.size()));
+            transactionTemplate.executeWithoutResult(status -> abrirLibro(tramo));
+        }
+        return sinApertura.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int calcularStock(Long idArticulo, LocalDateTime momento) {
+        LocalDateTime apertura = movimientoStockRepository.obtenerFechaApertura(idArticulo);
+        if (apertura == null || momento.isBefore(apertura)) {
+            throw new IllegalArgumentException("No hay registro de stock del artículo " + idArticulo + " en " + momento
+                    + (apertura != null ? ": el libro comienza el " + apertura : ": todavía no entró al libro"));
+        }
+
+        // Sin snapshot previo se suma el libro completo del artículo, desde su apertura
+        SnapshotStock snapshot = snapshotStockRepository
+                .findFirstByArticuloIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(idArticulo, momento)
+                .orElse(null);
+
+        int base = snapshot != null ? snapshot.getStock() : 0;
+        long desdeId = snapshot != null ? snapshot.getIdUltimoMovimiento() : 0L;
+        return base + movimientoStockRepository.sumarMovimientos(idArticulo, desdeId, momento).intValue();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stockline.snapshot-stock.intervalo-ms:3600000}",
+            initialDelayString = "${stockline.snapshot-stock.intervalo-ms:3600000}")
+    @Transactional
+    public int generarSnapshots() {
+        // Artículos dados de alta por fuera del servicio (cargas directas) entran al libro antes del corte
+        abrirLibroFaltantes();
+
+        // El corte se toma con un margen: los ids IDENTITY se asignan antes del commit, así que un
+        // movimiento reciente con id menor podría confirmarse después de leer el máximo
+        LocalDateTime corte = LocalDateTime.now().minusSeconds(margenSegundos);
+        long desdeId = snapshotStockRepository.obtenerUltimoMovimientoConSnapshot();
+        long hastaId = movimientoStockRepository.obtenerUltimoIdHasta(corte);
+
+        Map<Long, SnapshotStock> ultimos = new HashMap<>();
+        for (SnapshotStock snapshot : snapshotStockRepository.obtenerUltimosSnapshots()) {
+            ultimos.put(snapshot.getArticulo().getId(), snapshot);
+        }
+
+        List<SnapshotStock> nuevos = new ArrayList<>();
+        if (hastaId > desdeId) {
+            for (Object[] fila : movimientoStockRepository.sumarPorArticulo(desdeId, hastaId)) {
+                Long idArticulo = (Long) fila[0];
+                SnapshotStock anterior = ultimos.get(idArticulo);
+                if (anterior != null) {
+                    int delta = ((Number) fila[1]).intValue();
+                    nuevos.add(nuevoSnapshot(idArticulo, anterior.getStock() + delta, hastaId, corte));
+                }
+            }
+        }
+
+        // Artículos sin ningún snapshot (primer corte o altas nuevas): el primero es la suma de su libro hasta
+        // el corte, siempre que la apertura ya esté incluida; si no, entran en el corte siguiente
+        Set<Long> sinSnapshot = new HashSet<>(movimientoStockRepository.obtenerArticulosConAperturaHasta(hastaId));
+        sinSnapshot.removeAll(ultimos.keySet());
+
+        if (!sinSnapshot.isEmpty()) {
+            for (Object[] fila : movimientoStockRepository.sumarPorArticulo(0L, hastaId)) {
+                Long idArticulo = (Long) fila[0];
+                if (sinSnapshot.contains(idArticulo)) {
+                    nuevos.add(nuevoSnapshot(idArticulo, ((Number) fila[1]).intValue(), hastaId, corte));
+                }
+            }
+        }
+
+        movimientoStockRepository.insertarSnapshotsEnLote(nuevos);
+        return nuevos.size();
+    }
+
+    private SnapshotStock nuevoSnapshot(Long idArticulo, int stock, long idUltimoMovimiento, LocalDateTime corte) {
+        Articulo articulo = new Articulo();
+        articulo.setId(idArticulo);
+        return new SnapshotStock(stock, idUltimoMovimiento, corte, articulo);
+    }
+}
@@ -0,0 +1,13 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ResultadoAbastecimientoDTO;
+
+public interface OptimizadorAbastecimientoService {
+
+    // Evalúa todos los pares artículo-proveedor y devuelve como mucho "limite" recomendaciones
+    ResultadoAbastecimientoDTO optimizar(int limite);
+
+    // Asigna como predeterminado al proveedor recomendado cuando el ahorro anual llega al mínimo indicado
+    ResultadoAbastecimientoDTO aplicar(double ahorroMinimo);
+
+}
@@ -0,0 +1,218 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.ArticuloProveedorRepository;
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Service.dto.ResultadoAbastecimientoDTO;
+import com.grupo6.stockline.Service.dto.ResultadoAbastecimientoDTO.Recomendacion;
+import com.grupo6.stockline.Service.evento.ArticuloActualizadoEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Optimizador de abastecimiento: para cada par artículo-proveedor activo calcula el lote óptimo (EOQ) y el CGI que
+// tendría el artículo comprando a ese proveedor, y recomienda el más barato. Los pares se leen en streaming a arreglos
+// primitivos (un tramo contiguo por artículo) y los artículos se reparten entre los núcleos. Para poder comparar
+// proveedores, el CGI de cada par se evalúa con su propio EOQ, también en los artículos de Intervalo Fijo.
+@Service
+public class OptimizadorAbastecimientoServiceImpl implements OptimizadorAbastecimientoService {
+
+    private final ArticuloProveedorRepository articuloProveedorRepository;
+    private final ArticuloRepository articuloRepository;
+    private final RecalculoModelosService recalculoModelosService;
+    private final RecalculoDiferidoService recalculoDiferidoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public OptimizadorAbastecimientoServiceImpl(ArticuloProveedorRepository articuloProveedorRepository,
+                                                ArticuloRepository articuloRepository,
+                                                RecalculoModelosService recalculoModelosService,
+                                                RecalculoDiferidoService recalculoDiferidoService,
+                                                ApplicationEventPublisher eventPublisher,
+                                                PlatformTransactionManager transactionManager) {
+        this.articuloProveedorRepository = articuloProveedorRepository;
+        this.articuloRepository = articuloRepository;
+        this.recalculoModelosService = recalculoModelosService;
+        this.recalculoDiferidoService = recalculoDiferidoService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ResultadoAbastecimientoDTO optimizar(int limite) {
+        Evaluacion evaluacion = evaluar();
+        List<Recomendacion> recomendaciones = evaluacion.recomendaciones;
+        double ahorroTotal = recomendaciones.stream()
+                .filter(r -> r.ahorro() != null).mapToDouble(Recomendacion::ahorro).sum();
+        int tope = Math.max(0, limite);
+        return new ResultadoAbastecimientoDTO(evaluacion.pares, evaluacion.articulos, recomendaciones.size(), ahorroTotal, 0,
+                recomendaciones.size() > tope ? List.copyOf(recomendaciones.subList(0, tope)) : recomendaciones);
+    }
+
+    @Override
+    public ResultadoAbastecimientoDTO aplicar(double ahorroMinimo) {
+        Evaluacion evaluacion = evaluar();
+
+        // Sin predeterminado válido no hay ahorro que comparar: se asigna el recomendado
+        List<Recomendacion> aplicables = evaluacion.recomendaciones.stream()
+                .filter(r -> r.ahorro() == null || r.ahorro() >= ahorroMinimo)
+                .toList();
+        Map<Long, Long> proveedorPorArticulo = new LinkedHashMap<>();
+        for (Recomendacion recomendacion : aplicables) {
+            proveedorPorArticulo.put(recomendacion.idArticulo(), recomendacion.idProveedorRecomendado());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            articuloRepository.actualizarProveedorPredeterminadoEnLote(proveedorPorArticulo);
+            for (Long idArticulo : proveedorPorArticulo.keySet()) {
+                eventPublisher.publishEvent(new ArticuloActualizadoEvent(idArticulo));
+            }
+        });
+
+        // Los modelos dependen del proveedor: se recalculan en lote y, si ya hay un recálculo masivo en curso,
+        // quedan en la cola diferida para no usar entradas leídas antes del cambio
+        if (!proveedorPorArticulo.isEmpty()) {
+            try {
+                recalculoModelosService.recalcular(proveedorPorArticulo.keySet());
+            } catch (IllegalStateException e) {
+                proveedorPorArticulo.keySet().forEach(recalculoDiferidoService::programar);
+            }
+        }
+
+        double ahorroTotal = aplicables.stream()
+                .filter(r -> r.ahorro() != null).mapToDouble(Recomendacion::ahorro).sum();
+        return new ResultadoAbastecimientoDTO(evaluacion.pares, evaluacion.articulos, evaluacion.recomendaciones.size(),
+                ahorroTotal, aplicables.size(), aplicables);
+    }
+
+    private Evaluacion evaluar() {
+        MatrizProveedores matriz = new MatrizProveedores();
+        articuloProveedorRepository.recorrerParesActivos(matriz::agregar);
+        matriz.cerrar();
+
+        int n = matriz.articulos;
+        int[] mejor = new int[n];
+        double[] cgiMejor = new double[n];
+        int[] loteMejor = new int[n];
+        double[] cgiActual = new double[n];
+
+        // Cada artículo escribe sólo su posición: no hace falta sincronizar
+        IntStream.range(0, n).parallel().forEach(i -> {
+            mejor[i] = -1;
+            cgiMejor[i] = Double.POSITIVE_INFINITY;
+            cgiActual[i] = Double.NaN;
+            double demanda = matriz.demanda[i];
+            double costoAlmacenamiento = matriz.costoAlmacenamiento[i];
+            if (demanda <= 0 || costoAlmacenamiento <= 0) {
+                return;
+            }
+            for (int j = matriz.inicio[i]; j < matriz.inicio[i + 1]; j++) {
+                if (matriz.costoCompra[j] <= 0 || matriz.costoPedido[j] <= 0) {
+                    continue;
+                }
+                int lote = CalculadoraModeloInventario.loteOptimo(demanda, matriz.costoPedido[j], costoAlmacenamiento);
+                if (lote <= 0) {
+                    continue;
+                }
+                double cgi = CalculadoraModeloInventario.cgi(
+                        demanda, matriz.costoCompra[j], matriz.costoPedido[j], costoAlmacenamiento, lote);
+                if (matriz.idsProveedor[j] == matriz.predeterminado[i]) {
+                    cgiActual[i] = cgi;
+                }
+                // A igual CGI gana la menor demora de entrega
+                if (cgi < cgiMejor[i] || (cgi == cgiMejor[i] && matriz.demoraEntrega[j] < matriz.demoraEntrega[mejor[i]])) {
+                    mejor[i] = j;
+                    cgiMejor[i] = cgi;
+                    loteMejor[i] = lote;
+                }
+            }
+        });
+
+        List<Recomendacion> recomendaciones = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (mejor[i] < 0 || matriz.idsProveedor[mejor[i]] == matriz.predeterminado[i]) {
+                continue;
+            }
+            boolean tieneActual = !Double.isNaN(cgiActual[i]);
+            if (tieneActual && cgiMejor[i] >= cgiActual[i]) {
+                continue;
+            }
+            recomendaciones.add(new Recomendacion(
+                    matriz.idsArticulo[i],
+                    matriz.predeterminado[i] != 0 ? matriz.predeterminado[i] : null,
+                    tieneActual ? cgiActual[i] : null,
+                    matriz.idsProveedor[mejor[i]],
+                    cgiMejor[i],
+                    loteMejor[i],
+                    tieneActual ? cgiActual[i] - cgiMejor[i] : null));
+        }
+        // Mayor ahorro primero; los que no tienen predeterminado válido al final
+        recomendaciones.sort(Comparator.comparing(Recomendacion::ahorro,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+
+        return new Evaluacion(matriz.filas, n, recomendaciones);
+    }
+
+    private record Evaluacion(int pares, int articulos, List<Recomendacion> recomendaciones) {
+    }
+
+    // Matriz artículo-proveedor en formato CSR: los pares del artículo i son [inicio[i], inicio[i + 1])
+    private static final class MatrizProveedores {
+        private long[] idsArticulo = new long[1024];
+        private double[] demanda = new double[1024];
+        private double[] costoAlmacenamiento = new double[1024];
+        private long[] predeterminado = new long[1024];
+        private int[] inicio = new int[1025];
+        private int articulos;
+
+        private long[] idsProveedor = new long[1024];
+        private double[] costoCompra = new double[1024];
+        private double[] costoPedido = new double[1024];
+        private int[] demoraEntrega = new int[1024];
+        private int filas;
+
+        // Los pares llegan ordenados por artículo
+        private void agregar(long idArticulo, long idProveedor, double compra, double pedido, int demora,
+                             int demandaArticulo, int almacenamiento, long idProveedorPredeterminado) {
+            if (articulos == 0 || idsArticulo[articulos - 1] != idArticulo) {
+                if (articulos == idsArticulo.length) {
+                    int capacidad = articulos * 2;
+                    idsArticulo = Arrays.copyOf(idsArticulo, capacidad);
+                    demanda = Arrays.copyOf(demanda, capacidad);
+                    costoAlmacenamiento = Arrays.copyOf(costoAlmacenamiento, capacidad);
+                    predeterminado = Arrays.copyOf(predeterminado, capacidad);
+                    inicio = Arrays.copyOf(inicio, capacidad + 1);
+                }
+                idsArticulo[articulos] = idArticulo;
+                demanda[articulos] = demandaArticulo;
+                costoAlmacenamiento[articulos] = almacenamiento;
+                predeterminado[articulos] = idProveedorPredeterminado;
+                inicio[articulos] = filas;
+                articulos++;
+            }
+            if (filas == idsProveedor.length) {
+                int capacidad = filas * 2;
+                idsProveedor = Arrays.copyOf(idsProveedor, capacidad);
+                costoCompra = Arrays.copyOf(costoCompra, capacidad);
+                costoPedido = Arrays.copyOf(costoPedido, capacidad);
+                demoraEntrega = Arrays.copyOf(demoraEntrega, capacidad);
+            }
+            idsProveedor[filas] = idProveedor;
+            costoCompra[filas] = compra;
+            costoPedido[filas] = pedido;
+            demoraEntrega[filas++] = demora;
+        }
+
+        private void cerrar() {
+            inicio[articulos] = filas;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.grupo6.stockline.Entities.OrdenCompra;
 import com.grupo6.stockline.Entities.Proveedor;
 import com.grupo6.stockline.Enum.EstadoOrdenCompra;
 import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
 import com.grupo6.stockline.Repositories.ArticuloRepository;
 import com.grupo6.stockline.Repositories.OrdenCompraRepository;
 import com.grupo6.stockline.Repositories.ProveedorRepository;
@@ -19,7 +20,10 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class OrdenCompraServiceImpl extends BaseServiceImpl<OrdenCompra, Long> implements OrdenCompraService {
@@ -28,16 +32,37 @@ public class OrdenCompraServiceImpl extends BaseServiceImpl<OrdenCompra, Long> i
     private final ArticuloRepository articuloRepository; // Necesario para buscar artículos
     private final ProveedorRepository proveedorRepository; // Necesario para buscar proveedores
     private final DatosModeloInventarioService datosModeloInventarioService;
+    private final StockEnMemoriaService stockEnMemoriaService;
+    private final MovimientoStockService movimientoStockService;
 
     public OrdenCompraServiceImpl(OrdenCompraRepository ordenCompraRepository,
                                   ArticuloRepository articuloRepository,
                                   ProveedorRepository proveedorRepository,
-                                  DatosModeloInventarioService datosModeloInventarioService) {
+                                  DatosModeloInventarioService datosModeloInventarioService,
+                                  StockEnMemoriaService stockEnMemoriaService,
+                                  MovimientoStockService movimientoStockService) {
         super(ordenCompraRepository);
         this.ordenCompraRepository = ordenCompraRepository;
         this.articuloRepository = articuloRepository;
         this.proveedorRepository = proveedorRepository;
         this.datosModeloInventarioService = datosModeloInventarioService;
+        this.stockEnMemoriaService = stockEnMemoriaService;
+        this.movimientoStockService = movimientoStockService;
+    }
+
+    @Override
+    protected Set<String> camposOrdenables() {
+        return Set.of("id", "fechaAlta", "estadoOrdenCompra");
+    }
+
+    @Override
+    protected Set<String> camposOrdenablesNulos() {
+        return Set.of("estadoOrdenCompra");
+    }
+
+    @Override
+    protected String ordenPorDefecto() {
+        return "id,desc";
     }
 
     @Override
@@ -214,18 +239,27 @@ public class OrdenCompraServiceImpl extends BaseServiceImpl<OrdenCompra, Long> i
                 throw new Exception("Solo se pueden finalizar órdenes de compra que están en estado ENVIADA.");
             }
 
+            Map<Long, Integer> entradas = new LinkedHashMap<>();
             if (ordenCompra.getDetalleOrdenCompra() != null) {
                 for (DetalleOrdenCompra detalle : ordenCompra.getDetalleOrdenCompra()) {
                     Articulo articulo = detalle.getArticulo();
                     if (articulo != null) {
                         Integer cantidadComprada = detalle.getCantidad();
-                        articulo.setStockActual(articulo.getStockActual() + cantidadComprada);
-                        articuloRepository.save(articulo);
+                        entradas.merge(articulo.getId(), cantidadComprada, Integer::sum);
+                        int stockResultante;
+                        if (stockEnMemoriaService.estaHabilitado()) {
+                            stockResultante = stockEnMemoriaService.consultarStock(articulo.getId()) + cantidadComprada;
+                            stockEnMemoriaService.reponer(articulo.getId(), cantidadComprada);
+                        } else {
+                            // Delta en la base: un descuento confirmado entre la lectura y el flush no se pierde
+                            articuloRepository.aplicarDeltasStock(Map.of(articulo.getId(), cantidadComprada));
+                            stockResultante = articuloRepository.obtenerStockActual(articulo.getId());
+                        }
 
                         if (articulo.getModeloInventario() == ModeloInventario.LoteFijo) {
                             DatosModeloInventario datosActivos = datosModeloInventarioService.obtenerDatosModeloInventarioActivo(articulo);
                             Integer puntoPedido = datosActivos != null ? datosActivos.getPuntoPedido() : null;
-                            if (puntoPedido != null && articulo.getStockActual() <= puntoPedido) {
+                            if (puntoPedido != null && stockResultante <= puntoPedido) {
                                 System.out.println("AVISO: El stock del artículo " + articulo.getNombreArticulo()
                                         + " no supera el Punto de Pedido de " + puntoPedido + " unidades");
                             }
@@ -234,6 +268,8 @@ public class OrdenCompraServiceImpl extends BaseServiceImpl<OrdenCompra, Long> i
                 }
             }
 
+            movimientoStockService.registrar(TipoMovimientoStock.COMPRA, ordenCompra.getId(), entradas);
+
             ordenCompra.setEstadoOrdenCompra(EstadoOrdenCompra.FINALIZADA);
             ordenCompra.setFechaModificacionOrdenCompra(LocalDateTime.now());
             return ordenCompraRepository.save(ordenCompra);
@@ -330,13 +366,9 @@ public class OrdenCompraServiceImpl extends BaseServiceImpl<OrdenCompra, Long> i
 
             if (debeRevisarse) {
                 Integer inventarioMaximo = null;
-                if (articulo.getDatosModeloInventario() != null) {
-                    for (DatosModeloInventario datos : articulo.getDatosModeloInventario()) {
-                        if (datos.getModeloInventario() == ModeloInventario.IntervaloFijo && datos.getFechaBaja() == null) {
-                            inventarioMaximo = datos.getInventarioMaximo();
-                            break;
-                        }
-                    }
+                DatosModeloInventario datos = datosModeloInventarioService.obtenerDatosModeloInventarioActivo(articulo);
+                if (datos != null && datos.getModeloInventario() == ModeloInventario.IntervaloFijo) {
+                    inventarioMaximo = datos.getInventarioMaximo();
                 }
 
                 if (inventarioMaximo != null && articulo.getProveedorPredeterminado() != null) {
@@ -0,0 +1,32 @@
+package com.grupo6.stockline.Service;
+
+// Reglas de un día de una política de inventario, sin acceso a datos: las comparten la simulación Monte Carlo y el
+// backtest contra ventas reales, que sólo difieren en de dónde sale la demanda y cómo guardan las llegadas pendientes.
+public final class PoliticaInventarioDiaria {
+
+    private PoliticaInventarioDiaria() {
+    }
+
+    // Demanda atendida con lo que hay en mano; lo que falta se pierde y el día cuenta como quiebre
+    public static long atendida(long demanda, long enMano) {
+        return Math.min(demanda, enMano);
+    }
+
+    // Pedido al cierre del día según la posición de inventario (en mano + en camino): lote fijo pide el lote al llegar
+    // al punto de pedido; intervalo fijo completa hasta el inventario máximo al terminar cada período de revisión
+    public static long cantidadAPedir(boolean loteFijo, int puntoPedido, int loteOptimo, int tiempoRevision,
+                                      int inventarioMaximo, int dia, long posicion) {
+        if (loteFijo) {
+            return posicion <= puntoPedido ? loteOptimo : 0;
+        }
+        if ((dia + 1) % tiempoRevision == 0) {
+            return Math.max(0, inventarioMaximo - posicion);
+        }
+        return 0;
+    }
+
+    // Lo pedido hoy llega, como pronto, para el día siguiente
+    public static int diaLlegada(int dia, int demora) {
+        return dia + Math.max(demora, 1);
+    }
+}
@@ -0,0 +1,8 @@
+package com.grupo6.stockline.Service;
+
+public interface PronosticoLoteService {
+
+    // Recalcula el pronóstico de todo el catálogo activo y reemplaza la tabla; devuelve la cantidad de artículos
+    int generarPronosticos();
+
+}
@@ -0,0 +1,199 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.DemandaDiariaRepository;
+import com.grupo6.stockline.Repositories.PronosticoDemandaRepository;
+import com.grupo6.stockline.Service.dto.PronosticoLoteDTO;
+import com.grupo6.stockline.Service.pronostico.SelectorPronostico;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Pronóstico nocturno de todo el catálogo: las mismas cifras que el detalle del artículo
+// (promedio, desvío y suavizado exponencial sobre los días con ventas) para los últimos 30 días completos.
+// La demanda se lee del resumen demanda_diaria con una sola consulta en streaming y se guarda en arreglos primitivos
+// (un tramo contiguo por artículo), el cálculo se reparte entre los núcleos y el resultado se escribe en lote.
+// En modo "seleccion" el pronóstico sale del modelo (SelectorPronostico) con menor error en la historia reciente
+// de cada artículo, con los días sin ventas incluidos en la serie.
+@Service
+public class PronosticoLoteServiceImpl implements PronosticoLoteService {
+
+    private static final int DIAS_VENTANA = 30;
+    private static final int DIAS_HORIZONTE = 30;
+    private static final double ALPHA = 0.3;
+    private static final String MODELO_CLASICO = "SUAVIZADO_DIAS_CON_VENTA";
+
+    private final ArticuloRepository articuloRepository;
+    private final PronosticoDemandaRepository pronosticoDemandaRepository;
+    private final DemandaDiariaRepository demandaDiariaRepository;
+    private final SelectorPronostico selectorPronostico;
+    private final boolean seleccion;
+    private final int diasHistoria;
+    private final int diasEvaluacion;
+
+    public PronosticoLoteServiceImpl(ArticuloRepository articuloRepository,
+                                     PronosticoDemandaRepository pronosticoDemandaRepository,
+                                     DemandaDiariaRepository demandaDiariaRepository,
+                                     SelectorPronostico selectorPronostico,
+                                     @Value("${stockline.pronostico-lote.modo:clasico}") String modo,
+                                     @Value("${stockline.pronostico-lote.dias-historia:91}") int diasHistoria,
+                                     @Value("${stockline.pronostico-lote.dias-evaluacion:28}") int diasEvaluacion) {
+        this.articuloRepository = articuloRepository;
+        this.pronosticoDemandaRepository = pronosticoDemandaRepository;
+        this.demandaDiariaRepository = demandaDiariaRepository;
+        this.selectorPronostico = selectorPronostico;
+        this.seleccion = "seleccion".equalsIgnoreCase(modo);
+        this.diasHistoria = Math.max(diasHistoria, DIAS_VENTANA);
+        this.diasEvaluacion = diasEvaluacion;
+    }
+
+    @Override
+    @Scheduled(cron = "${stockline.pronostico-lote.cron:0 0 2 * * *}")
+    @Transactional
+    public int generarPronosticos() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime fechaCalculo = LocalDateTime.now();
+        LocalDate hoy = fechaCalculo.toLocalDate();
+        int dias = seleccion ? diasHistoria : DIAS_VENTANA;
+        LocalDate desde = hoy.minusDays(dias);
+
+        List<Long> activos = articuloRepository.obtenerIdsActivos();
+        long[] idsArticulo = new long[activos.size()];
+        for (int i = 0; i < idsArticulo.length; i++) {
+            idsArticulo[i] = activos.get(i);
+        }
+
+        DemandaPorArticulo demanda = new DemandaPorArticulo(idsArticulo, desde);
+        demandaDiariaRepository.recorrerDemandaDiaria(desde, hoy, demanda::agregar);
+        demanda.cerrar();
+
+        int n = idsArticulo.length;
+        double[] promedios = new double[n];
+        double[] desvios = new double[n];
+        int[] diasConVentas = new int[n];
+        double[] pronosticos = new double[n];
+        double[] pronosticos30Dias = new double[n];
+        String[] modelos = new String[n];
+        int primerDiaVentana = dias - DIAS_VENTANA;
+
+        // Cada artículo escribe sólo su posición: no hace falta sincronizar
+        IntStream.range(0, n).parallel().forEach(i -> {
+            // Estadísticas clásicas: días con ventas de los últimos 30 días
+            int hasta = demanda.inicio[i + 1];
+            int desdeVentana = demanda.inicio[i];
+            while (desdeVentana < hasta && demanda.dias[desdeVentana] < primerDiaVentana) {
+                desdeVentana++;
+            }
+            int conVentas = hasta - desdeVentana;
+            diasConVentas[i] = conVentas;
+            modelos[i] = MODELO_CLASICO;
+
+            if (conVentas > 0) {
+                double suma = 0;
+                for (int j = desdeVentana; j < hasta; j++) {
+                    suma += demanda.cantidades[j];
+                }
+                double promedio = suma / conVentas;
+
+                double sumaDesvios = 0;
+                double pronostico = promedio;
+                for (int j = desdeVentana; j < hasta; j++) {
+                    double diferencia = demanda.cantidades[j] - promedio;
+                    sumaDesvios += diferencia * diferencia;
+                    pronostico = ALPHA * demanda.cantidades[j] + (1 - ALPHA) * pronostico;
+                }
+
+                promedios[i] = promedio;
+                desvios[i] = Math.sqrt(sumaDesvios / conVentas);
+                pronosticos[i] = pronostico;
+                pronosticos30Dias[i] = pronostico * DIAS_HORIZONTE;
+            }
+
+            if (seleccion && demanda.inicio[i + 1] > demanda.inicio[i]) {
+                SelectorPronostico.Eleccion eleccion =
+                        selectorPronostico.elegir(demanda.serie(i, dias), dias, diasEvaluacion, DIAS_HORIZONTE);
+                if (eleccion.modelo() != null) {
+                    double total = 0;
+                    for (double futuro : eleccion.futuros()) {
+                        total += futuro;
+                    }
+                    modelos[i] = eleccion.modelo();
+                    pronosticos[i] = eleccion.futuros()[0];
+                    pronosticos30Dias[i] = total;
+                }
+            }
+        });
+
+        pronosticoDemandaRepository.reemplazarPronosticos(new PronosticoLoteDTO(
+                idsArticulo, promedios, desvios, diasConVentas, pronosticos, pronosticos30Dias, modelos, fechaCalculo));
+
+        System.out.println("Pronóstico nocturno: " + n + " artículos, " + demanda.filas + " días con ventas, "
+                + (System.currentTimeMillis() - inicio) + " ms");
+        return n;
+    }
+
+    // Demanda diaria de los artículos activos en formato CSR: las filas del artículo i son [inicio[i], inicio[i + 1]),
+    // cada una con su día (relativo al comienzo de la lectura) y su cantidad
+    private static final class DemandaPorArticulo {
+        private final long[] idsArticulo;
+        private final long primerDia;
+        private final int[] inicio;
+        private int[] dias = new int[1024];
+        private long[] cantidades = new long[1024];
+        private int filas;
+        private int actual = -1;
+
+        private DemandaPorArticulo(long[] idsArticulo, LocalDate desde) {
+            this.idsArticulo = idsArticulo;
+            this.primerDia = desde.toEpochDay();
+            this.inicio = new int[idsArticulo.length + 1];
+        }
+
+        // Las filas llegan ordenadas por artículo y fecha; las de artículos dados de baja se descartan
+        private void agregar(long idArticulo, LocalDate fecha, long cantidad) {
+            if (actual < 0 || idsArticulo[actual] != idArticulo) {
+                int posicion = Arrays.binarySearch(idsArticulo, Math.max(actual, 0), idsArticulo.length, idArticulo);
+                if (posicion < 0) {
+                    return;
+                }
+                avanzarHasta(posicion);
+            }
+            if (filas == cantidades.length) {
+                dias = Arrays.copyOf(dias, filas * 2);
+                cantidades = Arrays.copyOf(cantidades, filas * 2);
+            }
+            dias[filas] = (int) (fecha.toEpochDay() - primerDia);
+            cantidades[filas++] = cantidad;
+        }
+
+        private void avanzarHasta(int posicion) {
+            // Los artículos intermedios quedan con un tramo vacío
+            for (int i = actual + 1; i <= posicion; i++) {
+                inicio[i] = filas;
+            }
+            actual = posicion;
+        }
+
+        private void cerrar() {
+            for (int i = actual + 1; i <= idsArticulo.length; i++) {
+                inicio[i] = filas;
+            }
+        }
+
+        // Serie diaria completa del artículo i, con ceros en los días sin ventas
+        private double[] serie(int i, int longitud) {
+            double[] serie = new double[longitud];
+            for (int j = inicio[i]; j < inicio[i + 1]; j++) {
+                serie[dias[j]] = cantidades[j];
+            }
+            return serie;
+        }
+    }
+}
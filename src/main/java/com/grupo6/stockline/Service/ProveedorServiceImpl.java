@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class ProveedorServiceImpl extends BaseServiceImpl<Proveedor, Long> implements ProveedorService{
@@ -33,6 +34,16 @@ public class ProveedorServiceImpl extends BaseServiceImpl<Proveedor, Long> imple
         super(baseRepository);
     }
 
+    @Override
+    protected Set<String> camposOrdenables() {
+        return Set.of("id", "nombreProveedor", "fechaAlta");
+    }
+
+    @Override
+    protected Set<String> camposOrdenablesNulos() {
+        return Set.of("nombreProveedor");
+    }
+
     @Override
     @Transactional
     public void save(Proveedor proveedor) throws Exception {
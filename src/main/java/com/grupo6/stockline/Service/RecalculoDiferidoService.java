@@ -0,0 +1,22 @@
+package com.grupo6.stockline.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+public interface RecalculoDiferidoService {
+
+    // Programa el recálculo del modelo del artículo; pedidos seguidos se unifican en uno tras el período de calma
+    void programar(Long idArticulo);
+
+    int cantidadPendientes();
+
+    // Último recálculo fallido del artículo; se limpia cuando un recálculo posterior termina bien
+    Optional<Fallo> obtenerFallo(Long idArticulo);
+
+    Map<Long, Fallo> obtenerFallos();
+
+    record Fallo(String motivo, LocalDateTime fecha) {
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.evento.ArticuloProveedorActualizadoEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recálculo de modelo diferido por artículo: cada edición de costos de un proveedor registra la hora del último pedido
+// y el recálculo corre recién cuando pasó el período de calma sin nuevas ediciones del mismo artículo.
+// Una ráfaga de ediciones termina en un solo recálculo (y una sola fila de historial), fuera del request.
+@Service
+public class RecalculoDiferidoServiceImpl implements RecalculoDiferidoService {
+
+    private final ArticuloService articuloService;
+    private final long esperaNanos;
+    private final ScheduledThreadPoolExecutor programador;
+
+    // Artículo -> instante (nanoTime) del último pedido; la presencia indica que ya hay un control programado
+    private final Map<Long, Long> ultimoPedido = new ConcurrentHashMap<>();
+    // Artículo -> último recálculo fallido, visible en el detalle del artículo y en /admin
+    private final Map<Long, Fallo> fallos = new ConcurrentHashMap<>();
+
+    public RecalculoDiferidoServiceImpl(ArticuloService articuloService,
+                                        @Value("${stockline.recalculo-diferido.espera-ms:5000}") long esperaMs,
+                                        @Value("${stockline.recalculo-diferido.hilos:1}") int hilos) {
+        this.articuloService = articuloService;
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.programador = new ScheduledThreadPoolExecutor(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "recalculo-diferido-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.programador.setRemoveOnCancelPolicy(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alActualizarArticuloProveedor(ArticuloProveedorActualizadoEvent evento) {
+        programar(evento.idArticulo());
+    }
+
+    @Override
+    public void programar(Long idArticulo) {
+        // Sólo el primer pedido de la ráfaga programa el control; los siguientes únicamente corren el plazo
+        if (ultimoPedido.put(idArticulo, System.nanoTime()) == null) {
+            programador.schedule(() -> controlar(idArticulo), esperaNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public int cantidadPendientes() {
+        return ultimoPedido.size();
+    }
+
+    @Override
+    public Optional<Fallo> obtenerFallo(Long idArticulo) {
+        return Optional.ofNullable(fallos.get(idArticulo));
+    }
+
+    @Override
+    public Map<Long, Fallo> obtenerFallos() {
+        return Map.copyOf(fallos);
+    }
+
+    private void controlar(Long idArticulo) {
+        Long pedido = ultimoPedido.get(idArticulo);
+        if (pedido == null) {
+            return;
+        }
+        long restante = pedido + esperaNanos - System.nanoTime();
+        if (restante > 0) {
+            programador.schedule(() -> controlar(idArticulo), restante, TimeUnit.NANOSECONDS);
+            return;
+        }
+        // Si llegó otra edición entre la lectura y el remove, el control se reprograma con el nuevo plazo
+        if (!ultimoPedido.remove(idArticulo, pedido)) {
+            programador.schedule(() -> controlar(idArticulo), esperaNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        try {
+            articuloService.calcularModeloInventario(idArticulo);
+            fallos.remove(idArticulo);
+        } catch (Exception e) {
+            fallos.put(idArticulo, new Fallo(e.getMessage(), LocalDateTime.now()));
+            System.err.println("No se pudo recalcular el modelo del artículo " + idArticulo + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        programador.shutdown();
+        programador.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
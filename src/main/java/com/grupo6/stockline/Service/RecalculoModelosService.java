@@ -0,0 +1,20 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ProgresoRecalculoModelosDTO;
+
+import java.util.Collection;
+
+public interface RecalculoModelosService {
+
+    // Lanza el recálculo de todo el catálogo en segundo plano; si ya hay uno en curso devuelve su progreso
+    ProgresoRecalculoModelosDTO iniciarRecalculo();
+
+    ProgresoRecalculoModelosDTO obtenerProgreso();
+
+    // Recalcula todo el catálogo en el hilo actual
+    ProgresoRecalculoModelosDTO recalcularTodo();
+
+    // Igual que recalcularTodo, pero sólo para los artículos indicados
+    ProgresoRecalculoModelosDTO recalcular(Collection<Long> idsArticulo);
+
+}
@@ -0,0 +1,261 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository;
+import com.grupo6.stockline.Service.dto.ModeloInventarioLoteDTO;
+import com.grupo6.stockline.Service.dto.ProgresoRecalculoModelosDTO;
+import com.grupo6.stockline.Service.evento.ModeloInventarioCalculadoEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+// Recálculo de los modelos de inventario de todo el catálogo (por ejemplo, tras un cambio de lista de precios).
+// Las entradas se leen con una sola consulta, el cálculo (CalculadoraModeloInventario.calcularModelo, el mismo del
+// cálculo por artículo) se reparte entre los núcleos y los datos vigentes se cierran y reemplazan con lotes JDBC,
+// un tramo de artículos por transacción.
+// Como la escritura no pasa por Hibernate, después de cada tramo se desaloja la región de caché de los datos de modelo,
+// y los eventos de cada artículo mantienen al día el índice de faltantes y la caché de CGI.
+@Service
+public class RecalculoModelosServiceImpl implements RecalculoModelosService {
+
+    private static final int MAXIMO_DETALLE_ERRORES = 50;
+
+    private final ArticuloRepository articuloRepository;
+    private final DatosModeloInventarioRepository datosRepository;
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoTramo;
+    private final ExecutorService ejecutor;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    // Progreso del último recálculo de todo el catálogo; los recálculos parciales llevan el suyo y no lo pisan
+    private volatile Progreso progreso = new Progreso("SIN_EJECUTAR");
+
+    public RecalculoModelosServiceImpl(ArticuloRepository articuloRepository,
+                                       DatosModeloInventarioRepository datosRepository,
+                                       CacheSegundoNivelService cacheSegundoNivelService,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${stockline.recalculo-modelos.tamano-tramo:1000}") int tamanoTramo) {
+        this.articuloRepository = articuloRepository;
+        this.datosRepository = datosRepository;
+        this.cacheSegundoNivelService = cacheSegundoNivelService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoTramo = tamanoTramo;
+        this.ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "recalculo-modelos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @Override
+    public ProgresoRecalculoModelosDTO iniciarRecalculo() {
+        if (enCurso.compareAndSet(false, true)) {
+            Progreso nuevo = new Progreso("EN_CURSO");
+            progreso = nuevo;
+            ejecutor.execute(() -> {
+                try {
+                    ejecutar(null, nuevo);
+                } catch (Exception e) {
+                    System.err.println("Falló el recálculo masivo de modelos: " + e.getMessage());
+                } finally {
+                    enCurso.set(false);
+                }
+            });
+        }
+        return obtenerProgreso();
+    }
+
+    @Override
+    public ProgresoRecalculoModelosDTO recalcularTodo() {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un recálculo de modelos en curso.");
+        }
+        Progreso nuevo = new Progreso("EN_CURSO");
+        progreso = nuevo;
+        try {
+            ejecutar(null, nuevo);
+        } finally {
+            enCurso.set(false);
+        }
+        return nuevo.aDTO();
+    }
+
+    @Override
+    public ProgresoRecalculoModelosDTO recalcular(Collection<Long> idsArticulo) {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un recálculo de modelos en curso.");
+        }
+        Progreso parcial = new Progreso("EN_CURSO");
+        try {
+            ejecutar(new ArrayList<>(new LinkedHashSet<>(idsArticulo)), parcial);
+        } finally {
+            enCurso.set(false);
+        }
+        return parcial.aDTO();
+    }
+
+    @Override
+    public ProgresoRecalculoModelosDTO obtenerProgreso() {
+        return progreso.aDTO();
+    }
+
+    // Con filtro null recalcula todos los artículos con modelo; si no, sólo lee las entradas de los indicados
+    private void ejecutar(List<Long> filtro, Progreso progreso) {
+        try {
+            List<ArticuloRepository.DatosCalculoModeloProyeccion> datos = filtro == null
+                    ? articuloRepository.obtenerDatosCalculoModelo() : leerDatos(filtro);
+            int n = datos.size();
+            progreso.total.set(n);
+
+            long[] idsArticulo = new long[n];
+            ModeloInventario[] modelos = new ModeloInventario[n];
+            int[] lotesOptimos = new int[n];
+            int[] puntosPedido = new int[n];
+            int[] stocksSeguridad = new int[n];
+            int[] inventariosMaximos = new int[n];
+            int[] demandas = new int[n];
+            int[] demoras = new int[n];
+            double[] costosPedido = new double[n];
+            int[] costosAlmacenamiento = new int[n];
+            String[] fallas = new String[n];
+
+            // Cada artículo escribe sólo su posición: no hace falta sincronizar
+            IntStream.range(0, n).parallel().forEach(i -> {
+                ArticuloRepository.DatosCalculoModeloProyeccion articulo = datos.get(i);
+                idsArticulo[i] = articulo.getId();
+                modelos[i] = articulo.getModeloInventario();
+                try {
+                    CalculadoraModeloInventario.ResultadoModelo resultado = CalculadoraModeloInventario.calcularModelo(
+                            new CalculadoraModeloInventario.EntradasModelo(modelos[i],
+                                    articulo.getIdProveedorPredeterminado() != null, articulo.getIdArticuloProveedor() != null,
+                                    articulo.getDemandaArticulo(), articulo.getCostoAlmacenamiento(),
+                                    articulo.getTiempoRevision(), articulo.getNivelServicio(),
+                                    articulo.getDesviacionDemandaDiaria(), articulo.getCostoPedido(),
+                                    articulo.getDemoraEntrega()));
+                    lotesOptimos[i] = resultado.loteOptimo();
+                    puntosPedido[i] = resultado.puntoPedido();
+                    stocksSeguridad[i] = resultado.stockSeguridad();
+                    inventariosMaximos[i] = resultado.inventarioMaximo();
+                    demoras[i] = resultado.demoraEntrega();
+                    demandas[i] = articulo.getDemandaArticulo();
+                    costosPedido[i] = articulo.getCostoPedido();
+                    costosAlmacenamiento[i] = articulo.getCostoAlmacenamiento();
+                } catch (RuntimeException e) {
+                    fallas[i] = e.getMessage();
+                }
+            });
+
+            // Se escriben sólo los válidos: los demás conservan sus datos vigentes, como en el cálculo individual
+            int validos = 0;
+            for (int i = 0; i < n; i++) {
+                if (fallas[i] != null) {
+                    progreso.registrarError(idsArticulo[i], fallas[i]);
+                    continue;
+                }
+                idsArticulo[validos] = idsArticulo[i];
+                modelos[validos] = modelos[i];
+                lotesOptimos[validos] = lotesOptimos[i];
+                puntosPedido[validos] = puntosPedido[i];
+                stocksSeguridad[validos] = stocksSeguridad[i];
+                inventariosMaximos[validos] = inventariosMaximos[i];
+                demandas[validos] = demandas[i];
+                demoras[validos] = demoras[i];
+                costosPedido[validos] = costosPedido[i];
+                costosAlmacenamiento[validos] = costosAlmacenamiento[i];
+                validos++;
+            }
+            ModeloInventarioLoteDTO lote = new ModeloInventarioLoteDTO(
+                    Arrays.copyOf(idsArticulo, validos), Arrays.copyOf(modelos, validos),
+                    Arrays.copyOf(lotesOptimos, validos), Arrays.copyOf(puntosPedido, validos),
+                    Arrays.copyOf(stocksSeguridad, validos), Arrays.copyOf(inventariosMaximos, validos),
+                    Arrays.copyOf(demandas, validos), Arrays.copyOf(demoras, validos),
+                    Arrays.copyOf(costosPedido, validos), Arrays.copyOf(costosAlmacenamiento, validos),
+                    LocalDateTime.now());
+
+            for (int desde = 0; desde < lote.tamano(); desde += tamanoTramo) {
+                int inicioTramo = desde;
+                int finTramo = Math.min(desde + tamanoTramo, lote.tamano());
+                transactionTemplate.executeWithoutResult(status -> {
+                    datosRepository.reemplazarDatosActivos(lote, inicioTramo, finTramo);
+                    for (int i = inicioTramo; i < finTramo; i++) {
+                        eventPublisher.publishEvent(
+                                new ModeloInventarioCalculadoEvent(lote.idsArticulo()[i], lote.stockSeguridad()[i]));
+                    }
+                });
+                cacheSegundoNivelService.desalojarRegion(CacheSegundoNivelService.REGION_DATOS_MODELO_INVENTARIO);
+                progreso.calculados.addAndGet(finTramo - inicioTramo);
+            }
+            progreso.estado = "FINALIZADO";
+        } catch (RuntimeException e) {
+            progreso.estado = "FALLIDO";
+            progreso.detalleErrores.add("Recálculo interrumpido: " + e.getMessage());
+            throw e;
+        } finally {
+            progreso.fin = LocalDateTime.now();
+        }
+    }
+
+    // Las entradas se leen por tramos para no armar listas IN de tamaño arbitrario
+    private List<ArticuloRepository.DatosCalculoModeloProyeccion> leerDatos(List<Long> idsArticulo) {
+        List<ArticuloRepository.DatosCalculoModeloProyeccion> datos = new ArrayList<>(idsArticulo.size());
+        for (int desde = 0; desde < idsArticulo.size(); desde += tamanoTramo) {
+            datos.addAll(articuloRepository.obtenerDatosCalculoModelo(
+                    idsArticulo.subList(desde, Math.min(desde + tamanoTramo, idsArticulo.size()))));
+        }
+        return datos;
+    }
+
+    private static class Progreso {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger calculados = new AtomicInteger();
+        private final AtomicInteger errores = new AtomicInteger();
+        private final Queue<String> detalleErrores = new ConcurrentLinkedQueue<>();
+        private final LocalDateTime inicio;
+        private volatile String estado;
+        private volatile LocalDateTime fin;
+
+        private Progreso(String estado) {
+            this.estado = estado;
+            this.inicio = "SIN_EJECUTAR".equals(estado) ? null : LocalDateTime.now();
+        }
+
+        private void registrarError(long idArticulo, String mensaje) {
+            errores.incrementAndGet();
+            if (detalleErrores.size() < MAXIMO_DETALLE_ERRORES) {
+                detalleErrores.add("Artículo " + idArticulo + ": " + mensaje);
+            }
+        }
+
+        private ProgresoRecalculoModelosDTO aDTO() {
+            return new ProgresoRecalculoModelosDTO(estado, total.get(), calculados.get() + errores.get(),
+                    calculados.get(), errores.get(), inicio, fin, List.copyOf(detalleErrores));
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ResultadoRecalibracionDTO;
+
+public interface RecalibracionDemandaService {
+
+    // Deriva demanda anual y desvío diario del historial de ventas; sólo escribe y recalcula lo que cambió
+    ResultadoRecalibracionDTO recalibrar();
+
+}
@@ -0,0 +1,127 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.ArticuloRepositoryCustom.DemandaRecalibrada;
+import com.grupo6.stockline.Repositories.DemandaDiariaRepository;
+import com.grupo6.stockline.Service.dto.ResultadoRecalibracionDTO;
+import com.grupo6.stockline.Service.evento.ArticuloActualizadoEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recalibra demandaArticulo y el desvío diario de cada artículo activo a partir de las ventas de la ventana
+// (leídas del resumen demanda_diaria con una sola consulta agrupada). Los días sin ventas cuentan como demanda cero,
+// y un artículo dado de alta dentro de la ventana sólo se mide desde su alta. Se escriben en lote únicamente
+// los artículos cuyo valor cambió más que el umbral, y sólo a ellos se les recalcula el modelo de inventario.
+@Service
+public class RecalibracionDemandaServiceImpl implements RecalibracionDemandaService {
+
+    private final ArticuloRepository articuloRepository;
+    private final DemandaDiariaRepository demandaDiariaRepository;
+    private final ArticuloService articuloService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int diasVentana;
+    private final int diasMinimos;
+    private final double umbral;
+
+    public RecalibracionDemandaServiceImpl(ArticuloRepository articuloRepository,
+                                           DemandaDiariaRepository demandaDiariaRepository,
+                                           ArticuloService articuloService,
+                                           ApplicationEventPublisher eventPublisher,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${stockline.recalibracion.dias-ventana:360}") int diasVentana,
+                                           @Value("${stockline.recalibracion.dias-minimos:30}") int diasMinimos,
+                                           @Value("${stockline.recalibracion.umbral:0.10}") double umbral) {
+        this.articuloRepository = articuloRepository;
+        this.demandaDiariaRepository = demandaDiariaRepository;
+        this.articuloService = articuloService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.diasVentana = diasVentana;
+        this.diasMinimos = diasMinimos;
+        this.umbral = umbral;
+    }
+
+    @Override
+    @Scheduled(cron = "${stockline.recalibracion.cron:0 30 3 * * MON}")
+    public ResultadoRecalibracionDTO recalibrar() {
+        // Sólo días cerrados: el de hoy todavía está acumulando ventas
+        LocalDate hasta = LocalDate.now();
+        LocalDate desde = hasta.minusDays(diasVentana);
+
+        Map<Long, long[]> totales = new HashMap<>();
+        demandaDiariaRepository.recorrerTotalesPorArticulo(desde, hasta,
+                (idArticulo, suma, sumaCuadrados) -> totales.put(idArticulo, new long[]{suma, sumaCuadrados}));
+
+        List<ArticuloRepository.DatosRecalibracionProyeccion> articulos = articuloRepository.obtenerDatosRecalibracion();
+        List<DemandaRecalibrada> cambios = new ArrayList<>();
+        for (ArticuloRepository.DatosRecalibracionProyeccion articulo : articulos) {
+            long[] total = totales.get(articulo.getId());
+            if (total == null) {
+                // Sin ventas en la ventana se conserva la demanda cargada a mano
+                continue;
+            }
+
+            long dias = diasVentana;
+            if (articulo.getFechaAlta() != null) {
+                dias = Math.min(dias, ChronoUnit.DAYS.between(articulo.getFechaAlta().toLocalDate(), hasta));
+            }
+            if (dias < diasMinimos) {
+                continue;
+            }
+
+            double media = (double) total[0] / dias;
+            double varianza = Math.max(0, (double) total[1] / dias - media * media);
+            double desviacion = Math.sqrt(varianza);
+            int demandaAnual = (int) Math.round(media * CalculadoraModeloInventario.DIAS_POR_ANIO);
+            if (demandaAnual <= 0) {
+                continue;
+            }
+
+            if (cambioSignificativo(articulo.getDemandaArticulo(), demandaAnual)
+                    || cambioSignificativo(articulo.getDesviacionDemandaDiaria(), desviacion)) {
+                cambios.add(new DemandaRecalibrada(articulo.getId(), demandaAnual, desviacion));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            articuloRepository.actualizarDemandaEnLote(cambios);
+            for (DemandaRecalibrada cambio : cambios) {
+                eventPublisher.publishEvent(new ArticuloActualizadoEvent(cambio.idArticulo()));
+            }
+        });
+
+        // Cada recálculo en su propia transacción: un artículo sin proveedor o costos no frena al resto
+        int recalculados = 0;
+        int errores = 0;
+        for (DemandaRecalibrada cambio : cambios) {
+            try {
+                articuloService.calcularModeloInventario(cambio.idArticulo());
+                recalculados++;
+            } catch (Exception e) {
+                errores++;
+                System.err.println("No se pudo recalcular el modelo del artículo " + cambio.idArticulo() + ": " + e.getMessage());
+            }
+        }
+
+        return new ResultadoRecalibracionDTO(articulos.size(), cambios.size(), recalculados, errores);
+    }
+
+    private boolean cambioSignificativo(Number anterior, double nuevo) {
+        if (anterior == null || anterior.doubleValue() <= 0) {
+            return nuevo > 0 || anterior == null;
+        }
+        return Math.abs(nuevo - anterior.doubleValue()) / anterior.doubleValue() > umbral;
+    }
+}
@@ -0,0 +1,12 @@
+package com.grupo6.stockline.Service;
+
+import java.util.Collection;
+
+public interface ReposicionAutomaticaService {
+
+    // Agenda la evaluación de punto de pedido; varias solicitudes del mismo artículo se unifican
+    void encolar(Collection<Long> idsArticulo);
+
+    void evaluar(Long idArticulo) throws Exception;
+
+}
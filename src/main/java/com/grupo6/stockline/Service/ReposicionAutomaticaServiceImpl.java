@@ -0,0 +1,189 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.DatosModeloInventario;
+import com.grupo6.stockline.Enum.EstadoOrdenCompra;
+import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.OrdenCompraRepository;
+import com.grupo6.stockline.Service.evento.VentaRegistradaEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Evalúa el punto de pedido de los artículos Lote Fijo fuera de la transacción de la venta.
+// Cada artículo tiene a lo sumo una evaluación en cola; las ventas que llegan mientras tanto se suman a ella.
+// Si la cola está llena la evaluación se descarta (nunca corre en el hilo de la venta): el artículo queda
+// pendiente y lo vuelve a encolar la próxima venta o el barrido periódico.
+@Service
+public class ReposicionAutomaticaServiceImpl implements ReposicionAutomaticaService {
+
+    private static final int CANDADOS = 64;
+    private static final List<EstadoOrdenCompra> ESTADOS_ACTIVOS = List.of(EstadoOrdenCompra.PENDIENTE, EstadoOrdenCompra.ENVIADA);
+
+    private final ArticuloRepository articuloRepository;
+    private final OrdenCompraRepository ordenCompraRepository;
+    private final OrdenCompraService ordenCompraService;
+    private final DatosModeloInventarioService datosModeloInventarioService;
+    private final StockEnMemoriaService stockEnMemoriaService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+    // Pendientes cuya evaluación se descartó por cola llena
+    private final Set<Long> descartados = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] candados = new ReentrantLock[CANDADOS];
+    private final ThreadPoolExecutor ejecutor;
+
+    public ReposicionAutomaticaServiceImpl(ArticuloRepository articuloRepository,
+                                           OrdenCompraRepository ordenCompraRepository,
+                                           OrdenCompraService ordenCompraService,
+                                           DatosModeloInventarioService datosModeloInventarioService,
+                                           StockEnMemoriaService stockEnMemoriaService,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${stockline.reposicion.hilos:2}") int hilos,
+                                           @Value("${stockline.reposicion.capacidad-cola:1000}") int capacidadCola) {
+        this.articuloRepository = articuloRepository;
+        this.ordenCompraRepository = ordenCompraRepository;
+        this.ordenCompraService = ordenCompraService;
+        this.datosModeloInventarioService = datosModeloInventarioService;
+        this.stockEnMemoriaService = stockEnMemoriaService;
+
+        // Siempre en una transacción propia, aunque se ejecute desde el afterCommit de la venta
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int i = 0; i < CANDADOS; i++) {
+            candados[i] = new ReentrantLock();
+        }
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        // Cola acotada: si se llena, la evaluación se descarta y el artículo sigue en pendientes
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "reposicion-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                (tarea, ejecutor) -> descartados.add(((Evaluacion) tarea).idArticulo));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alRegistrarVenta(VentaRegistradaEvent evento) {
+        encolar(evento.cantidadPorArticulo().keySet());
+    }
+
+    @Override
+    public void encolar(Collection<Long> idsArticulo) {
+        for (Long idArticulo : idsArticulo) {
+            if (pendientes.add(idArticulo) || descartados.remove(idArticulo)) {
+                ejecutor.execute(new Evaluacion(idArticulo));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stockline.reposicion.intervalo-reintento-ms:5000}")
+    public void reintentarDescartados() {
+        if (descartados.isEmpty() || ejecutor.isShutdown()) {
+            return;
+        }
+        for (Long idArticulo : List.copyOf(descartados)) {
+            if (descartados.remove(idArticulo)) {
+                ejecutor.execute(new Evaluacion(idArticulo));
+            }
+        }
+    }
+
+    private final class Evaluacion implements Runnable {
+
+        private final Long idArticulo;
+
+        private Evaluacion(Long idArticulo) {
+            this.idArticulo = idArticulo;
+        }
+
+        @Override
+        public void run() {
+            procesar(idArticulo);
+        }
+    }
+
+    private void procesar(Long idArticulo) {
+        // Se quita antes de evaluar: una venta posterior vuelve a encolar el artículo
+        pendientes.remove(idArticulo);
+        try {
+            evaluar(idArticulo);
+        } catch (Exception e) {
+            System.err.println("No se pudo evaluar la reposición del artículo " + idArticulo + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void evaluar(Long idArticulo) throws Exception {
+        // Un candado por artículo (repartido en franjas) abarca la transacción completa: dos evaluaciones
+        // del mismo artículo nunca ven "sin orden activa" a la vez, así que no se duplican órdenes automáticas
+        ReentrantLock candado = candados[Math.floorMod(idArticulo.hashCode(), CANDADOS)];
+        candado.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    verificarYGenerarOrdenDeCompra(idArticulo);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private void verificarYGenerarOrdenDeCompra(Long idArticulo) throws Exception {
+        Articulo articulo = articuloRepository.findById(idArticulo)
+                .orElseThrow(() -> new Exception("El artículo no existe."));
+
+        if (articulo.getModeloInventario() != ModeloInventario.LoteFijo) {
+            return;
+        }
+
+        DatosModeloInventario datosModelo = datosModeloInventarioService.obtenerDatosModeloInventarioActivo(articulo);
+        if (datosModelo == null) {
+            throw new Exception("No se encontraron datos de modelo de inventario para el artículo: " + articulo.getNombreArticulo());
+        }
+
+        int stockActual = stockEnMemoriaService.estaHabilitado()
+                ? stockEnMemoriaService.consultarStock(idArticulo)
+                : articulo.getStockActual();
+
+        boolean necesitaReposicion = stockActual <= datosModelo.getPuntoPedido();
+
+        if (necesitaReposicion) {
+            boolean yaTieneOrdenActiva = ordenCompraRepository.existsByDetalleOrdenCompra_ArticuloAndEstadoOrdenCompraIn(articulo, ESTADOS_ACTIVOS);
+
+            if (!yaTieneOrdenActiva) {
+                ordenCompraService.crearOrdenAutomaticaParaLoteFijo(articulo, datosModelo);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -1,9 +1,13 @@
 package com.grupo6.stockline.Service;
 
+import com.grupo6.stockline.Entities.PronosticoDemanda;
 import com.grupo6.stockline.Service.dto.EstadisticasDemandaDTO;
 
 public interface ServicioPrediccionDemanda {
 
     EstadisticasDemandaDTO obtenerEstadisticas(Long idArticulo);
 
+    // Resultado de la última corrida del pronóstico nocturno, o null si el artículo todavía no tiene
+    PronosticoDemanda obtenerPronosticoNocturno(Long idArticulo);
+
 }
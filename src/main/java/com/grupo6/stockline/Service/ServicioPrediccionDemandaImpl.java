@@ -1,76 +1,263 @@
 package com.grupo6.stockline.Service;
 
 import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.PronosticoDemanda;
 import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.DemandaDiariaRepository;
+import com.grupo6.stockline.Repositories.PronosticoDemandaRepository;
 import com.grupo6.stockline.Repositories.VentaRepository;
 import com.grupo6.stockline.Service.dto.EstadisticasDemandaDTO;
-import lombok.RequiredArgsConstructor;
+import com.grupo6.stockline.Service.evento.ArticuloDadoDeBajaEvent;
+import com.grupo6.stockline.Service.evento.VentaRegistradaEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
+// Estadísticas de demanda de los últimos 30 días (más el día en curso) mantenidas en memoria por artículo.
+// Cada venta confirmada suma su cantidad al día correspondiente del anillo y ajusta los acumulados,
+// así que consultar el detalle del artículo no vuelve a agregar las ventas.
+// Un artículo sin anillo (arranque, baja) se reconstruye desde el historial en la primera consulta: el anillo
+// se publica vacío antes de leer la base, así que las ventas que se confirman durante la lectura igual llegan
+// a él. Los dos últimos días se leen venta por venta y se recuerdan sus ids: una venta que aparece en la
+// lectura y también por evento se cuenta una sola vez. Los días anteriores salen del resumen diario.
 @Service
-@RequiredArgsConstructor
 public class ServicioPrediccionDemandaImpl implements ServicioPrediccionDemanda {
 
+    private static final int DIAS_VENTANA = 30;
+    // Días (contando el actual) que la reconstrucción lee venta por venta en lugar de usar el resumen
+    private static final int DIAS_DETALLE = 2;
+    private static final double ALPHA = 0.3;
+
     private final VentaRepository ventaRepository;
     private final ArticuloRepository articuloRepository;
+    private final StockEnMemoriaService stockEnMemoriaService;
+    private final PronosticoDemandaRepository pronosticoDemandaRepository;
+    private final DemandaDiariaRepository demandaDiariaRepository;
 
-    @Override
-    public EstadisticasDemandaDTO obtenerEstadisticas(Long idArticulo) {
+    private final Map<Long, AcumuladorDemanda> acumuladores = new ConcurrentHashMap<>();
 
-        Articulo articulo = articuloRepository.findById(idArticulo)
-                .orElseThrow(() -> new IllegalArgumentException("Artículo no encontrado"));
+    public ServicioPrediccionDemandaImpl(VentaRepository ventaRepository,
+                                         ArticuloRepository articuloRepository,
+                                         StockEnMemoriaService stockEnMemoriaService,
+                                         PronosticoDemandaRepository pronosticoDemandaRepository,
+                                         DemandaDiariaRepository demandaDiariaRepository) {
+        this.ventaRepository = ventaRepository;
+        this.articuloRepository = articuloRepository;
+        this.stockEnMemoriaService = stockEnMemoriaService;
+        this.pronosticoDemandaRepository = pronosticoDemandaRepository;
+        this.demandaDiariaRepository = demandaDiariaRepository;
+    }
+
+    // Anillo de DIAS_VENTANA + 1 días indexado por día epoch, con suma y suma de cuadrados de los días con ventas
+    private static final class AcumuladorDemanda {
+        private final long[] dias = new long[DIAS_VENTANA + 1];
+        private final long[] cantidades = new long[DIAS_VENTANA + 1];
+        // Ventas con fecha anterior al inicio del detalle vienen del resumen diario
+        private final LocalDateTime inicioDetalle;
+        // Ventas ya contadas en el tramo de detalle (por evento o por la lectura de la reconstrucción)
+        private final Set<Long> ventasContadas = new HashSet<>();
+        private final CountDownLatch construido = new CountDownLatch(1);
+        private volatile boolean fallido;
+        private long diaActual;
+        private int diasConVentas;
+        private long suma;
+        private long sumaCuadrados;
+        private Double pronostico;
+
+        private AcumuladorDemanda(LocalDateTime inicioDetalle, long hoy) {
+            this.inicioDetalle = inicioDetalle;
+            this.diaActual = hoy;
+            Arrays.fill(dias, Long.MIN_VALUE);
+        }
+
+        private synchronized void sumarVenta(Long idVenta, LocalDateTime fecha, long cantidad) {
+            if (fecha.isBefore(inicioDetalle)) {
+                return;
+            }
+            // Ya construido, cada venta llega una sola vez más: sólo hay que descartar (y olvidar) las leídas
+            boolean contada = construido.getCount() == 0
+                    ? ventasContadas.remove(idVenta)
+                    : !ventasContadas.add(idVenta);
+            if (!contada) {
+                sumar(fecha.toLocalDate().toEpochDay(), cantidad);
+            }
+        }
+
+        private void esperarConstruccion() {
+            try {
+                construido.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando las estadísticas de demanda", e);
+            }
+        }
+
+        private synchronized void sumar(long dia, long cantidad) {
+            avanzarHasta(Math.max(dia, diaActual));
+            if (dia < diaActual - DIAS_VENTANA || cantidad == 0) {
+                return;
+            }
+            int i = (int) Math.floorMod(dia, (long) dias.length);
+            long anterior = dias[i] == dia ? cantidades[i] : 0;
+            long nueva = anterior + cantidad;
+
+            if (anterior == 0) {
+                diasConVentas++;
+            }
+            suma += cantidad;
+            sumaCuadrados += nueva * nueva - anterior * anterior;
+            dias[i] = dia;
+            cantidades[i] = nueva;
+            pronostico = null;
+        }
+
+        // Saca de los acumulados los días que quedaron fuera de la ventana
+        private void avanzarHasta(long hoy) {
+            if (hoy <= diaActual) {
+                return;
+            }
+            long limite = hoy - DIAS_VENTANA;
+            for (int i = 0; i < dias.length; i++) {
+                if (dias[i] != Long.MIN_VALUE && dias[i] < limite) {
+                    long cantidad = cantidades[i];
+                    diasConVentas--;
+                    suma -= cantidad;
+                    sumaCuadrados -= cantidad * cantidad;
+                    dias[i] = Long.MIN_VALUE;
+                    cantidades[i] = 0;
+                    pronostico = null;
+                }
+            }
+            diaActual = hoy;
+        }
+
+        private synchronized EstadisticasDemandaDTO estadisticas(long hoy, int stockActual) {
+            avanzarHasta(hoy);
+            if (diasConVentas == 0) {
+                // sin datos: todo en 0, cobertura "infinita"
+                return new EstadisticasDemandaDTO(0, 0, 0, Integer.MAX_VALUE, 0, 0);
+            }
+
+            double promedio = (double) suma / diasConVentas;
+            double varianza = Math.max(0, (double) sumaCuadrados / diasConVentas - promedio * promedio);
 
-        LocalDateTime desde = LocalDate.now().minusDays(30).atStartOfDay();
+            if (pronostico == null) {
+                // Suavizado exponencial sobre los días con ventas en orden cronológico, partiendo del promedio
+                double valor = promedio;
+                for (long dia = diaActual - DIAS_VENTANA; dia <= diaActual; dia++) {
+                    int i = (int) Math.floorMod(dia, (long) dias.length);
+                    if (dias[i] == dia) {
+                        valor = ALPHA * cantidades[i] + (1 - ALPHA) * valor;
+                    }
+                }
+                pronostico = valor;
+            }
 
-        List<VentaRepository.DemandaDiariaProyeccion> registros =
-                ventaRepository.obtenerDemandaDiariaPorArticulo(idArticulo, desde);
+            int diasCobertura = promedio > 0
+                    ? (int) Math.floor(stockActual / promedio)
+                    : Integer.MAX_VALUE;
 
-        if (registros.isEmpty()) {
-            // sin datos: todo en 0, cobertura "infinita"
             return new EstadisticasDemandaDTO(
-                    0, 0, 0, Integer.MAX_VALUE, 0, 0
+                    promedio,
+                    Math.sqrt(varianza),
+                    diasConVentas,
+                    diasCobertura,
+                    pronostico,
+                    pronostico * 30
             );
         }
+    }
 
-        int n = registros.size();
-        double suma = registros.stream()
-                .mapToInt(VentaRepository.DemandaDiariaProyeccion::getCantidad)
-                .sum();
+    @Override
+    public EstadisticasDemandaDTO obtenerEstadisticas(Long idArticulo) {
 
-        double promedio = suma / n;
+        Articulo articulo = articuloRepository.findById(idArticulo)
+                .orElseThrow(() -> new IllegalArgumentException("Artículo no encontrado"));
 
-        double varianza = registros.stream()
-                .mapToDouble(r -> Math.pow(r.getCantidad() - promedio, 2))
-                .sum() / n;
+        int stockActual = stockEnMemoriaService.estaHabilitado()
+                ? stockEnMemoriaService.consultarStock(idArticulo)
+                : (articulo.getStockActual() != null ? articulo.getStockActual() : 0);
 
-        double desviacion = Math.sqrt(varianza);
+        return obtenerAcumulador(idArticulo).estadisticas(LocalDate.now().toEpochDay(), stockActual);
+    }
 
-        int stockActual = articulo.getStockActual() != null ? articulo.getStockActual() : 0;
+    @Override
+    public PronosticoDemanda obtenerPronosticoNocturno(Long idArticulo) {
+        return pronosticoDemandaRepository.findByArticuloId(idArticulo).orElse(null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alRegistrarVenta(VentaRegistradaEvent evento) {
+        for (Map.Entry<Long, Integer> linea : evento.cantidadPorArticulo().entrySet()) {
+            // Si el artículo todavía no tiene anillo, la reconstrucción va a leer esta venta de la base
+            AcumuladorDemanda acumulador = acumuladores.get(linea.getKey());
+            if (acumulador != null) {
+                acumulador.sumarVenta(evento.idVenta(), evento.fechaVenta(), linea.getValue());
+            }
+        }
+    }
 
-        int diasCobertura = promedio > 0
-                ? (int) Math.floor(stockActual / promedio)
-                : Integer.MAX_VALUE;
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alDarDeBaja(ArticuloDadoDeBajaEvent evento) {
+        acumuladores.remove(evento.idArticulo());
+    }
 
-        double alpha = 0.3;
-        double pronostico = promedio;
+    private AcumuladorDemanda obtenerAcumulador(Long idArticulo) {
+        while (true) {
+            AcumuladorDemanda acumulador = acumuladores.get(idArticulo);
+            if (acumulador == null) {
+                LocalDate hoy = LocalDate.now();
+                AcumuladorDemanda nuevo = new AcumuladorDemanda(
+                        hoy.minusDays(DIAS_DETALLE - 1).atStartOfDay(), hoy.toEpochDay());
+                acumulador = acumuladores.putIfAbsent(idArticulo, nuevo);
+                if (acumulador == null) {
+                    // Las consultas a la base corren fuera del mapa; mientras tanto los eventos ya se suman al anillo
+                    reconstruir(idArticulo, nuevo);
+                    return nuevo;
+                }
+            }
 
-        for (VentaRepository.DemandaDiariaProyeccion r : registros) {
-            pronostico = alpha * r.getCantidad() + (1 - alpha) * pronostico;
+            acumulador.esperarConstruccion();
+            if (!acumulador.fallido) {
+                return acumulador;
+            }
+            // La reconstrucción de otro hilo falló y ya quitó el anillo: se vuelve a intentar
         }
+    }
 
-        double pronostico30Dias = pronostico * 30;
+    private void reconstruir(Long idArticulo, AcumuladorDemanda acumulador) {
+        try {
+            LocalDate inicioDetalle = acumulador.inicioDetalle.toLocalDate();
+            List<DemandaDiariaRepository.DemandaPorDiaProyeccion> resumen = demandaDiariaRepository.obtenerDemandaDiaria(
+                    idArticulo, inicioDetalle.minusDays(DIAS_VENTANA + 1 - DIAS_DETALLE), inicioDetalle);
+            List<VentaRepository.VentaArticuloProyeccion> detalle =
+                    ventaRepository.obtenerVentasDeArticuloDesde(idArticulo, acumulador.inicioDetalle);
 
-        return new EstadisticasDemandaDTO(
-                promedio,
-                desviacion,
-                n,
-                diasCobertura,
-                pronostico,
-                pronostico30Dias
-        );
+            synchronized (acumulador) {
+                for (DemandaDiariaRepository.DemandaPorDiaProyeccion registro : resumen) {
+                    acumulador.sumar(registro.getFecha().toEpochDay(), registro.getCantidad());
+                }
+                for (VentaRepository.VentaArticuloProyeccion venta : detalle) {
+                    acumulador.sumarVenta(venta.getIdVenta(), venta.getFechaAlta(), venta.getCantidad());
+                }
+            }
+        } catch (RuntimeException e) {
+            acumulador.fallido = true;
+            acumuladores.remove(idArticulo, acumulador);
+            throw e;
+        } finally {
+            acumulador.construido.countDown();
+        }
     }
 }
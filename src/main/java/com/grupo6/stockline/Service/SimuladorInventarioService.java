@@ -0,0 +1,14 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Service.dto.ResultadoSimulacionDTO;
+
+import java.util.List;
+
+public interface SimuladorInventarioService {
+
+    ResultadoSimulacionDTO simular(Long idArticulo, int trayectorias);
+
+    // Todos los artículos con modelo vigente y proveedor predeterminado, de mayor a menor probabilidad de quiebre
+    List<ResultadoSimulacionDTO> simularCatalogo(int trayectorias);
+
+}
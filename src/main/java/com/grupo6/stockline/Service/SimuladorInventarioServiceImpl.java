@@ -0,0 +1,249 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository;
+import com.grupo6.stockline.Repositories.DatosModeloInventarioRepository.ParametrosSimulacionProyeccion;
+import com.grupo6.stockline.Repositories.DemandaDiariaRepository;
+import com.grupo6.stockline.Service.dto.ResultadoSimulacionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Simulación Monte Carlo de la política vigente (Lote Fijo o Intervalo Fijo) de cada artículo durante un año.
+// La demanda de cada día se sortea entre los días del historial del artículo (resumen demanda_diaria, con ceros en los
+// días sin ventas) y la demora de cada pedido varía alrededor de la del proveedor predeterminado. La demanda que no se
+// puede atender se pierde. Cada trayectoria arranca con la política llena (punto de pedido + lote, o inventario máximo).
+// Las trayectorias se reparten en bloques entre los núcleos; cada bloque tiene su propio SplittableRandom (derivado de
+// una semilla fija, así los resultados se pueden repetir) y reutiliza sus arreglos, sin reservar memoria por día.
+@Service
+public class SimuladorInventarioServiceImpl implements SimuladorInventarioService {
+
+    // Posiciones del arreglo de acumulados de cada bloque
+    private static final int TRAYECTORIAS_CON_QUIEBRE = 0;
+    private static final int DIAS_CON_QUIEBRE = 1;
+    private static final int DEMANDA = 2;
+    private static final int DEMANDA_ATENDIDA = 3;
+    private static final int INVENTARIO_PROMEDIO = 4;
+    private static final int PEDIDOS = 5;
+    private static final int UNIDADES_PEDIDAS = 6;
+    private static final int ACUMULADOS = 7;
+
+    private final DatosModeloInventarioRepository datosRepository;
+    private final DemandaDiariaRepository demandaDiariaRepository;
+    private final int dias;
+    private final int diasHistoria;
+    private final double variabilidadDemora;
+    private final long semilla;
+    private final int bloques;
+
+    public SimuladorInventarioServiceImpl(DatosModeloInventarioRepository datosRepository,
+                                          DemandaDiariaRepository demandaDiariaRepository,
+                                          @Value("${stockline.simulacion.dias:360}") int dias,
+                                          @Value("${stockline.simulacion.dias-historia:360}") int diasHistoria,
+                                          @Value("${stockline.simulacion.variabilidad-demora:0.2}") double variabilidadDemora,
+                                          @Value("${stockline.simulacion.semilla:42}") long semilla) {
+        this.datosRepository = datosRepository;
+        this.demandaDiariaRepository = demandaDiariaRepository;
+        this.dias = dias;
+        this.diasHistoria = diasHistoria;
+        this.variabilidadDemora = variabilidadDemora;
+        this.semilla = semilla;
+        this.bloques = Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    @Override
+    public ResultadoSimulacionDTO simular(Long idArticulo, int trayectorias) {
+        ParametrosSimulacionProyeccion parametros = datosRepository.obtenerParametrosSimulacion(idArticulo)
+                .orElseThrow(() -> new IllegalStateException(
+                        "El artículo no tiene modelo de inventario vigente ni proveedor predeterminado."));
+        validar(parametros);
+
+        LocalDate hasta = LocalDate.now();
+        LocalDate desde = inicioHistoria(parametros, hasta);
+        double[] serie = new double[(int) Math.max(1, hasta.toEpochDay() - desde.toEpochDay())];
+        demandaDiariaRepository.obtenerDemandaDiaria(idArticulo, desde, hasta).forEach(dia ->
+                serie[(int) (dia.getFecha().toEpochDay() - desde.toEpochDay())] = dia.getCantidad());
+
+        return simular(parametros, serie, trayectorias);
+    }
+
+    @Override
+    public List<ResultadoSimulacionDTO> simularCatalogo(int trayectorias) {
+        LocalDate hasta = LocalDate.now();
+        LocalDate desdeLectura = hasta.minusDays(diasHistoria);
+
+        Map<Long, ParametrosSimulacionProyeccion> articulos = new HashMap<>();
+        Map<Long, double[]> series = new HashMap<>();
+        for (ParametrosSimulacionProyeccion parametros : datosRepository.obtenerParametrosSimulacion()) {
+            try {
+                validar(parametros);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            LocalDate desde = inicioHistoria(parametros, hasta);
+            articulos.put(parametros.getIdArticulo(), parametros);
+            series.put(parametros.getIdArticulo(), new double[(int) Math.max(1, hasta.toEpochDay() - desde.toEpochDay())]);
+        }
+
+        // Una sola lectura en streaming del historial; cada día cae en la serie de su artículo
+        demandaDiariaRepository.recorrerDemandaDiaria(desdeLectura, hasta, (idArticulo, fecha, cantidad) -> {
+            double[] serie = series.get(idArticulo);
+            if (serie != null) {
+                int dia = (int) (fecha.toEpochDay() - (hasta.toEpochDay() - serie.length));
+                if (dia >= 0) {
+                    serie[dia] = cantidad;
+                }
+            }
+        });
+
+        List<ResultadoSimulacionDTO> resultados = new ArrayList<>();
+        for (ParametrosSimulacionProyeccion parametros : articulos.values()) {
+            resultados.add(simular(parametros, series.get(parametros.getIdArticulo()), trayectorias));
+        }
+        resultados.sort(Comparator.comparingDouble(ResultadoSimulacionDTO::probabilidadQuiebre).reversed()
+                .thenComparing(ResultadoSimulacionDTO::idArticulo));
+        return resultados;
+    }
+
+    private LocalDate inicioHistoria(ParametrosSimulacionProyeccion parametros, LocalDate hasta) {
+        LocalDate desde = hasta.minusDays(diasHistoria);
+        // Un artículo nuevo sólo se mide desde su alta: los días anteriores no son demanda cero
+        if (parametros.getFechaAltaArticulo() != null && parametros.getFechaAltaArticulo().toLocalDate().isAfter(desde)) {
+            desde = parametros.getFechaAltaArticulo().toLocalDate();
+        }
+        return desde.isBefore(hasta) ? desde : hasta.minusDays(1);
+    }
+
+    private void validar(ParametrosSimulacionProyeccion parametros) {
+        if (parametros.getModeloInventario() == ModeloInventario.LoteFijo) {
+            if (parametros.getLoteOptimo() == null || parametros.getLoteOptimo() <= 0 || parametros.getPuntoPedido() == null) {
+                throw new IllegalStateException("Datos de modelo de lote fijo incompletos.");
+            }
+        } else if (parametros.getInventarioMaximo() == null
+                || parametros.getTiempoRevision() == null || parametros.getTiempoRevision() <= 0) {
+            throw new IllegalStateException("Datos de modelo de intervalo fijo incompletos.");
+        }
+    }
+
+    private ResultadoSimulacionDTO simular(ParametrosSimulacionProyeccion parametros, double[] serie, int trayectorias) {
+        if (trayectorias <= 0) {
+            throw new IllegalArgumentException("La cantidad de trayectorias debe ser mayor a cero.");
+        }
+        boolean loteFijo = parametros.getModeloInventario() == ModeloInventario.LoteFijo;
+        int loteOptimo = loteFijo ? parametros.getLoteOptimo() : 0;
+        int puntoPedido = loteFijo ? parametros.getPuntoPedido() : 0;
+        int inventarioMaximo = loteFijo ? 0 : parametros.getInventarioMaximo();
+        int tiempoRevision = loteFijo ? 0 : parametros.getTiempoRevision();
+        int demora = parametros.getDemoraEntrega() != null ? Math.max(parametros.getDemoraEntrega(), 0) : 0;
+        int inicial = loteFijo ? puntoPedido + loteOptimo : inventarioMaximo;
+
+        // Generadores derivados en orden: el resultado no depende de qué hilo toma cada bloque
+        int cantidadBloques = Math.min(bloques, trayectorias);
+        SplittableRandom raiz = new SplittableRandom(semilla ^ (parametros.getIdArticulo() * 0x9E3779B97F4A7C15L));
+        SplittableRandom[] generadores = new SplittableRandom[cantidadBloques];
+        for (int b = 0; b < cantidadBloques; b++) {
+            generadores[b] = raiz.split();
+        }
+        double[][] acumulados = new double[cantidadBloques][ACUMULADOS];
+
+        IntStream.range(0, cantidadBloques).parallel().forEach(b -> {
+            int desde = (int) ((long) trayectorias * b / cantidadBloques);
+            int hasta = (int) ((long) trayectorias * (b + 1) / cantidadBloques);
+            simularBloque(hasta - desde, serie, loteFijo, loteOptimo, puntoPedido, inventarioMaximo, tiempoRevision,
+                    demora, inicial, generadores[b], acumulados[b]);
+        });
+
+        double[] total = new double[ACUMULADOS];
+        for (double[] bloque : acumulados) {
+            for (int k = 0; k < ACUMULADOS; k++) {
+                total[k] += bloque[k];
+            }
+        }
+
+        double anios = dias / CalculadoraModeloInventario.DIAS_POR_ANIO;
+        double inventarioPromedio = total[INVENTARIO_PROMEDIO] / trayectorias;
+        double pedidosPorAnio = total[PEDIDOS] / trayectorias / anios;
+        double costoAlmacenamiento = valorODefecto(parametros.getCostoAlmacenamiento()) * inventarioPromedio;
+        double costoPedidos = valorODefecto(parametros.getCostoPedido()) * pedidosPorAnio;
+        double costoCompra = valorODefecto(parametros.getCostoCompra()) * total[UNIDADES_PEDIDAS] / trayectorias / anios;
+
+        return new ResultadoSimulacionDTO(
+                parametros.getIdArticulo(),
+                parametros.getModeloInventario(),
+                trayectorias,
+                total[TRAYECTORIAS_CON_QUIEBRE] / trayectorias,
+                total[DEMANDA] > 0 ? total[DEMANDA_ATENDIDA] / total[DEMANDA] : 1.0,
+                total[DIAS_CON_QUIEBRE] / trayectorias,
+                inventarioPromedio,
+                pedidosPorAnio,
+                costoAlmacenamiento,
+                costoPedidos,
+                costoCompra,
+                costoAlmacenamiento + costoPedidos + costoCompra);
+    }
+
+    // Bucle interno: sólo tipos primitivos y un arreglo de llegadas que se reutiliza entre trayectorias
+    private void simularBloque(int trayectorias, double[] serie, boolean loteFijo, int loteOptimo, int puntoPedido,
+                               int inventarioMaximo, int tiempoRevision, int demora, int inicial,
+                               SplittableRandom aleatorio, double[] acumulados) {
+        int desvioDemora = (int) Math.round(demora * variabilidadDemora);
+        long[] llegadas = new long[dias];
+
+        for (int t = 0; t < trayectorias; t++) {
+            Arrays.fill(llegadas, 0);
+            long enMano = inicial;
+            long enCamino = 0;
+            double inventario = 0;
+            int diasConQuiebre = 0;
+
+            for (int dia = 0; dia < dias; dia++) {
+                enMano += llegadas[dia];
+                enCamino -= llegadas[dia];
+
+                long demanda = (long) serie[aleatorio.nextInt(serie.length)];
+                acumulados[DEMANDA] += demanda;
+                long servido = PoliticaInventarioDiaria.atendida(demanda, enMano);
+                if (servido < demanda) {
+                    diasConQuiebre++;
+                }
+                acumulados[DEMANDA_ATENDIDA] += servido;
+                enMano -= servido;
+
+                long cantidad = PoliticaInventarioDiaria.cantidadAPedir(loteFijo, puntoPedido, loteOptimo,
+                        tiempoRevision, inventarioMaximo, dia, enMano + enCamino);
+                if (cantidad > 0) {
+                    int demoraPedido = desvioDemora > 0
+                            ? Math.max(0, demora + aleatorio.nextInt(-desvioDemora, desvioDemora + 1))
+                            : demora;
+                    int llegada = PoliticaInventarioDiaria.diaLlegada(dia, demoraPedido);
+                    if (llegada < dias) {
+                        llegadas[llegada] += cantidad;
+                    }
+                    enCamino += cantidad;
+                    acumulados[PEDIDOS]++;
+                    acumulados[UNIDADES_PEDIDAS] += cantidad;
+                }
+                inventario += enMano;
+            }
+
+            acumulados[INVENTARIO_PROMEDIO] += inventario / dias;
+            acumulados[DIAS_CON_QUIEBRE] += diasConQuiebre;
+            if (diasConQuiebre > 0) {
+                acumulados[TRAYECTORIAS_CON_QUIEBRE]++;
+            }
+        }
+    }
+
+    private static double valorODefecto(Number valor) {
+        return valor != null ? valor.doubleValue() : 0;
+    }
+}
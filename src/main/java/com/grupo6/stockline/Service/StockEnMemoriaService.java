@@ -0,0 +1,20 @@
+package com.grupo6.stockline.Service;
+
+public interface StockEnMemoriaService {
+
+    boolean estaHabilitado();
+
+    // Descuenta en memoria si alcanza el stock. Se confirma al commit y se devuelve si hay rollback.
+    boolean reservar(Long idArticulo, int cantidad);
+
+    // Suma stock (p. ej. al finalizar una orden de compra) una vez confirmada la transacción; se llama antes de
+    // registrar el movimiento COMPRA, que la lectura inicial del contador no debe incluir
+    void reponer(Long idArticulo, int cantidad);
+
+    int consultarStock(Long idArticulo);
+
+    void volcarPendientes();
+
+    void reconstruir();
+
+}
@@ -0,0 +1,181 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.MovimientoStockRepository;
+import com.grupo6.stockline.Repositories.MovimientoStockRepositoryCustom.MovimientosNoVolcados;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stock de los artículos en contadores atómicos (sin locks): ventas, ajustes y recepciones de compra
+// operan en memoria y un volcado periódico escribe en la tabla articulo los deltas ya confirmados.
+// Los pendientes no se guardan en memoria: cada cambio deja su fila en movimiento_stock (en la misma
+// transacción que la venta, el ajuste o la compra) con volcado = false, y el volcado aplica esas filas a
+// articulo.stock_actual y las marca en una sola transacción. Si el volcado falla no se marca nada y se
+// reintenta entero; ante una caída, al arrancar se vuelca lo pendiente y el stock se reconstruye desde la base.
+// El volcado corre en un hilo propio y no en el planificador compartido de @Scheduled, donde los procesos
+// nocturnos (pronósticos, recalibración, archivo) lo dejarían esperando minutos.
+@Service
+public class StockEnMemoriaServiceImpl implements StockEnMemoriaService {
+
+    private final ArticuloRepository articuloRepository;
+    private final MovimientoStockRepository movimientoStockRepository;
+    // Programático: el volcado también corre desde @PreDestroy y desde otros métodos de esta clase
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final ScheduledExecutorService volcador;
+
+    // Stock disponible (ya descontadas las reservas en curso)
+    private final Map<Long, AtomicInteger> disponible = new ConcurrentHashMap<>();
+
+    public StockEnMemoriaServiceImpl(ArticuloRepository articuloRepository,
+                                     MovimientoStockRepository movimientoStockRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${stockline.stock-memoria.habilitado:false}") boolean habilitado,
+                                     @Value("${stockline.stock-memoria.intervalo-volcado-ms:500}") long intervaloVolcadoMs) {
+        this.articuloRepository = articuloRepository;
+        this.movimientoStockRepository = movimientoStockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.volcador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "volcado-stock");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        if (habilitado) {
+            volcador.scheduleWithFixedDelay(this::volcarPeriodico, intervaloVolcadoMs, intervaloVolcadoMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean estaHabilitado() {
+        return habilitado;
+    }
+
+    @Override
+    public boolean reservar(Long idArticulo, int cantidad) {
+        AtomicInteger contador = contador(idArticulo);
+
+        int actual;
+        do {
+            actual = contador.get();
+            if (actual < cantidad) {
+                return false;
+            }
+        } while (!contador.compareAndSet(actual, actual - cantidad));
+
+        // Confirmada, la salida ya queda en el movimiento de la transacción; sólo el rollback la devuelve
+        alConfirmar(() -> { }, () -> contador.addAndGet(cantidad));
+        return true;
+    }
+
+    @Override
+    public void reponer(Long idArticulo, int cantidad) {
+        // El contador se resuelve ya, como en reservar: creado recién en el commit, su lectura de la base incluiría
+        // el movimiento COMPRA confirmado y la recepción se sumaría dos veces
+        AtomicInteger contador = contador(idArticulo);
+        alConfirmar(() -> contador.addAndGet(cantidad), () -> { });
+    }
+
+    @Override
+    public int consultarStock(Long idArticulo) {
+        return contador(idArticulo).get();
+    }
+
+    // Una excepción cancelaría las siguientes ejecuciones de scheduleWithFixedDelay: se informa y se reintenta
+    private void volcarPeriodico() {
+        try {
+            volcarPendientes();
+        } catch (RuntimeException e) {
+            System.err.println("Falló el volcado de stock en memoria, se reintenta: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void volcarPendientes() {
+        if (!habilitado) {
+            return;
+        }
+
+        // Deltas y marcas en la misma transacción: si algo falla (también el commit) los movimientos
+        // siguen sin marcar y el próximo volcado los vuelve a aplicar completos
+        transactionTemplate.executeWithoutResult(status -> {
+            MovimientosNoVolcados pendientes = movimientoStockRepository.leerNoVolcados();
+            if (pendientes.idsMovimiento().isEmpty()) {
+                return;
+            }
+            articuloRepository.aplicarDeltasStock(pendientes.deltaPorArticulo());
+            movimientoStockRepository.marcarVolcados(pendientes.idsMovimiento());
+        });
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+
+        // Lo confirmado antes de una caída y no volcado se aplica primero; la lectura igual suma los pendientes
+        // que se confirmen entretanto. No se pisan contadores ya creados por operaciones en curso
+        volcarPendientes();
+        for (ArticuloRepository.StockArticuloProyeccion fila : articuloRepository.obtenerStockConNoVolcadosActivos()) {
+            disponible.putIfAbsent(fila.getId(), new AtomicInteger(fila.getStockActual()));
+        }
+        System.out.println("Stock en memoria reconstruido para " + disponible.size() + " artículos");
+    }
+
+    @PreDestroy
+    public void alApagar() throws InterruptedException {
+        volcador.shutdown();
+        volcador.awaitTermination(10, TimeUnit.SECONDS);
+        volcarPendientes();
+    }
+
+    private AtomicInteger contador(Long idArticulo) {
+        AtomicInteger contador = disponible.get(idArticulo);
+        if (contador != null) {
+            return contador;
+        }
+
+        // Artículo todavía no cargado (p. ej. dado de alta después del arranque)
+        int stockBase = articuloRepository.obtenerStockConNoVolcados(idArticulo)
+                .map(ArticuloRepository.StockArticuloProyeccion::getStockActual)
+                .orElse(0);
+        AtomicInteger nuevo = new AtomicInteger(stockBase);
+        AtomicInteger existente = disponible.putIfAbsent(idArticulo, nuevo);
+        return existente != null ? existente : nuevo;
+    }
+
+    private void alConfirmar(Runnable alCommit, Runnable alRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alCommit.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    alCommit.run();
+                } else {
+                    alRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -6,4 +6,6 @@ public interface VentaService extends BaseService<Venta, Long>{
 
     Venta crearVenta(Venta venta) throws Exception;
 
+    Venta obtenerVentaConDetalle(Long id) throws Exception;
+
 }
@@ -1,20 +1,24 @@
 package com.grupo6.stockline.Service;
 
 import com.grupo6.stockline.Entities.Articulo;
-import com.grupo6.stockline.Entities.DatosModeloInventario;
 import com.grupo6.stockline.Entities.DetalleVenta;
 import com.grupo6.stockline.Entities.Venta;
-import com.grupo6.stockline.Enum.EstadoOrdenCompra;
-import com.grupo6.stockline.Enum.ModeloInventario;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
 import com.grupo6.stockline.Repositories.*;
-import com.grupo6.stockline.Service.DatosModeloInventarioService;
+import com.grupo6.stockline.Service.evento.VentaRegistradaEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class VentaServiceImpl extends BaseServiceImpl<Venta, Long> implements VentaService {
@@ -25,84 +29,132 @@ public class VentaServiceImpl extends BaseServiceImpl<Venta, Long> implements Ve
     @Autowired
     DetalleVentaRepository detalleVentaRepository;
     @Autowired
-    DatosModeloInventarioRepository datosModeloInventarioRepository;
+    StockEnMemoriaService stockEnMemoriaService;
     @Autowired
-    DatosModeloInventarioService datosModeloInventarioService;
+    DemandaDiariaRepository demandaDiariaRepository;
     @Autowired
-    OrdenCompraRepository ordenCompraRepository;
+    MovimientoStockService movimientoStockService;
     @Autowired
-    OrdenCompraService ordenCompraService;
+    ApplicationEventPublisher eventPublisher;
     @PersistenceContext
     private EntityManager entityManager;
 
     public VentaServiceImpl(BaseRepository<Venta, Long> baseRepository,
                             VentaRepository ventaRepository,
                             ArticuloRepository articuloRepository,
-                            DetalleVentaRepository detalleVentaRepository,
-                            DatosModeloInventarioRepository datosModeloInventarioRepository,
-                            OrdenCompraRepository ordenCompraRepository,
-                            OrdenCompraService ordenCompraService) {
+                            DetalleVentaRepository detalleVentaRepository) {
         super(baseRepository);
     }
 
     @Override
-    @Transactional
-    public Venta crearVenta(Venta venta) throws Exception {
-        double totalVenta = 0;
+    protected Set<String> camposOrdenables() {
+        return Set.of("id", "fechaAlta", "totalVenta");
+    }
+
+    @Override
+    protected String ordenPorDefecto() {
+        return "id,desc";
+    }
 
-        for (DetalleVenta detalle : venta.getDetalleVenta()) {
-            Articulo articulo = articuloRepository.findById(detalle.getArticulo().getId())
-                    .orElseThrow(() -> new Exception("El artículo no existe."));
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public Venta crearVenta(Venta venta) throws Exception {
+        List<DetalleVenta> detalles = venta.getDetalleVenta();
 
-            if (detalle.getCantidad() > articulo.getStockActual()) {
-                throw new Exception("Stock insuficiente para el artículo: " + articulo.getNombreArticulo() +
-                        ". Stock disponible: " + articulo.getStockActual() + ", se solicitan: " + detalle.getCantidad());
+        // Cantidad total pedida por artículo (un mismo artículo puede venir en varias líneas)
+        Map<Long, Integer> cantidadPorArticulo = new LinkedHashMap<>();
+        for (DetalleVenta detalle : detalles) {
+            if (detalle.getArticulo() == null || detalle.getArticulo().getId() == null) {
+                throw new Exception("El artículo no existe.");
             }
+            cantidadPorArticulo.merge(detalle.getArticulo().getId(), detalle.getCantidad(), Integer::sum);
         }
 
-        Venta ventaGuardada = ventaRepository.save(venta);
-
-        for (DetalleVenta detalle : venta.getDetalleVenta()) {
-            Articulo articulo = articuloRepository.findById(detalle.getArticulo().getId()).get();
+        // Una sola consulta para todos los artículos del ticket
+        Map<Long, Articulo> articulos = new HashMap<>();
+        for (Articulo articulo : articuloRepository.findAllById(cantidadPorArticulo.keySet())) {
+            articulos.put(articulo.getId(), articulo);
+        }
 
-            int nuevoStock = articulo.getStockActual() - detalle.getCantidad();
-            articulo.setStockActual(nuevoStock);
-            articuloRepository.save(articulo);
+        for (Long idArticulo : cantidadPorArticulo.keySet()) {
+            if (!articulos.containsKey(idArticulo)) {
+                throw new Exception("El artículo no existe.");
+            }
+        }
 
+        double totalVenta = 0;
+        for (DetalleVenta detalle : detalles) {
+            Articulo articulo = articulos.get(detalle.getArticulo().getId());
+            detalle.setArticulo(articulo);
             detalle.setSubTotal(articulo.getPrecioVenta() * detalle.getCantidad());
             totalVenta += detalle.getSubTotal();
+        }
 
-            detalle.setVenta(ventaGuardada);
-            detalleVentaRepository.save(detalle);
+        descontarStock(cantidadPorArticulo, articulos);
+
+        // La venta se inserta una sola vez, ya con su total; los detalles van aparte en lote
+        venta.setDetalleVenta(new ArrayList<>());
+        venta.setTotalVenta(totalVenta);
+        Venta ventaGuardada = ventaRepository.save(venta);
 
-            verificarYGenerarOrdenDeCompra(articulo);
+        for (DetalleVenta detalle : detalles) {
+            detalle.setVenta(ventaGuardada);
+            detalle.setFechaAlta(ventaGuardada.getFechaAlta());
         }
+        detalleVentaRepository.insertarEnLote(detalles);
+        demandaDiariaRepository.sumarEnLote(ventaGuardada.getFechaAlta().toLocalDate(), cantidadPorArticulo);
 
-        ventaGuardada.setTotalVenta(totalVenta);
-        return ventaRepository.save(ventaGuardada);
+        Map<Long, Integer> salidas = new LinkedHashMap<>();
+        cantidadPorArticulo.forEach((idArticulo, cantidad) -> salidas.put(idArticulo, -cantidad));
+        movimientoStockService.registrar(TipoMovimientoStock.VENTA, ventaGuardada.getId(), salidas);
+
+        // El punto de pedido se evalúa en segundo plano una vez confirmada la venta
+        eventPublisher.publishEvent(new VentaRegistradaEvent(
+                ventaGuardada.getId(), ventaGuardada.getFechaAlta(), cantidadPorArticulo));
+
+        return ventaGuardada;
     }
 
-    private void verificarYGenerarOrdenDeCompra(Articulo articulo) throws Exception {
+    @Override
+    public Venta obtenerVentaConDetalle(Long id) throws Exception {
+        return ventaRepository.findConDetalleById(id)
+                .orElseThrow(() -> new Exception("Entidad no encontrada con ID: " + id));
+    }
 
-        if (articulo.getModeloInventario() != ModeloInventario.LoteFijo) {
+    private void descontarStock(Map<Long, Integer> cantidadPorArticulo, Map<Long, Articulo> articulos) throws Exception {
+        if (stockEnMemoriaService.estaHabilitado()) {
+            // Reservas en memoria: si alguna falla, el rollback devuelve las ya tomadas
+            for (Map.Entry<Long, Integer> pedido : cantidadPorArticulo.entrySet()) {
+                if (!stockEnMemoriaService.reservar(pedido.getKey(), pedido.getValue())) {
+                    throw stockInsuficiente(articulos.get(pedido.getKey()),
+                            stockEnMemoriaService.consultarStock(pedido.getKey()), pedido.getValue());
+                }
+            }
             return;
         }
 
-        DatosModeloInventario datosModelo = datosModeloInventarioService.obtenerDatosModeloInventarioActivo(articulo);
-        if (datosModelo == null) {
-            throw new Exception("No se encontraron datos de modelo de inventario para el artículo: " + articulo.getNombreArticulo());
+        for (Map.Entry<Long, Integer> pedido : cantidadPorArticulo.entrySet()) {
+            Articulo articulo = articulos.get(pedido.getKey());
+            if (pedido.getValue() > articulo.getStockActual()) {
+                throw stockInsuficiente(articulo, articulo.getStockActual(), pedido.getValue());
+            }
         }
 
-        boolean necesitaReposicion = articulo.getStockActual() <= datosModelo.getPuntoPedido();
-
-        if (necesitaReposicion) {
-            List<EstadoOrdenCompra> estadosActivos = List.of(EstadoOrdenCompra.PENDIENTE, EstadoOrdenCompra.ENVIADA);
-            boolean yaTieneOrdenActiva = ordenCompraRepository.existsByDetalleOrdenCompra_ArticuloAndEstadoOrdenCompraIn(articulo, estadosActivos);
-
-            if (!yaTieneOrdenActiva) {
-                ordenCompraService.crearOrdenAutomaticaParaLoteFijo(articulo, datosModelo);
+        // Descuento condicional en la base: si otra venta concurrente se llevó el stock,
+        // el UPDATE no afecta filas y la venta completa se revierte
+        Map<Long, Integer> filasAfectadas = articuloRepository.descontarStockEnLote(cantidadPorArticulo);
+        for (Map.Entry<Long, Integer> resultado : filasAfectadas.entrySet()) {
+            if (resultado.getValue() == 0) {
+                throw stockInsuficiente(articulos.get(resultado.getKey()),
+                        articuloRepository.obtenerStockActual(resultado.getKey()),
+                        cantidadPorArticulo.get(resultado.getKey()));
             }
         }
     }
 
+    private Exception stockInsuficiente(Articulo articulo, Integer stockDisponible, Integer cantidadSolicitada) {
+        return new Exception("Stock insuficiente para el artículo: " + articulo.getNombreArticulo() +
+                ". Stock disponible: " + stockDisponible + ", se solicitan: " + cantidadSolicitada);
+    }
+
 }
@@ -0,0 +1,16 @@
+package com.grupo6.stockline.Service.dto;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+
+public record ArticuloReponerDTO(
+        Long id,
+        String nombreArticulo,
+        String descripcionArticulo,
+        double precioVenta,
+        Integer stockActual,
+        ModeloInventario modeloInventario,
+        String nombreProveedor,
+        Integer puntoPedido,
+        Integer loteOptimo
+) {
+}
@@ -0,0 +1,20 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.List;
+
+public record EstadisticasCacheDTO(
+        List<Region> regiones,
+        long consultasAciertos,
+        long consultasFallos,
+        long consultasGuardadas
+) {
+    public record Region(
+            String nombre,
+            long aciertos,
+            long fallos,
+            long guardados,
+            // null si el proveedor de caché no informa el tamaño
+            Long elementosEnMemoria
+    ) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.grupo6.stockline.Service.dto;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+
+import java.time.LocalDateTime;
+
+// Datos de modelo calculados en masa, en arreglos paralelos: la posición i es el artículo idsArticulo[i].
+// Lote Fijo usa loteOptimo y puntoPedido; Intervalo Fijo usa inventarioMaximo. Las referencias son las entradas del cálculo
+public record ModeloInventarioLoteDTO(
+        long[] idsArticulo,
+        ModeloInventario[] modeloInventario,
+        int[] loteOptimo,
+        int[] puntoPedido,
+        int[] stockSeguridad,
+        int[] inventarioMaximo,
+        int[] demandaReferencia,
+        int[] demoraEntregaReferencia,
+        double[] costoPedidoReferencia,
+        int[] costoAlmacenamientoReferencia,
+        LocalDateTime fechaCalculo
+) {
+    public int tamano() {
+        return idsArticulo.length;
+    }
+}
@@ -0,0 +1,31 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Página de un listado por keyset: los cursores son opacos y se pasan tal cual en el parámetro "cursor"
+public record PaginaDTO<E>(
+        List<E> contenido,
+        String orden,
+        int tamano,
+        String cursorAnterior,
+        String cursorSiguiente
+) {
+    public boolean hayAnterior() {
+        return cursorAnterior != null;
+    }
+
+    public boolean haySiguiente() {
+        return cursorSiguiente != null;
+    }
+
+    // Opciones del selector de orden, en pares valor del parámetro "orden" / etiqueta
+    public static Map<String, String> opcionesOrden(String... valoresYEtiquetas) {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        for (int i = 0; i < valoresYEtiquetas.length; i += 2) {
+            opciones.put(valoresYEtiquetas[i], valoresYEtiquetas[i + 1]);
+        }
+        return opciones;
+    }
+}
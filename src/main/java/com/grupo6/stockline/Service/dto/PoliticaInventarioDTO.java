@@ -0,0 +1,14 @@
+package com.grupo6.stockline.Service.dto;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+
+// Política a evaluar: punto de pedido y lote (Lote Fijo) o período de revisión e inventario máximo (Intervalo Fijo)
+public record PoliticaInventarioDTO(
+        ModeloInventario modeloInventario,
+        Integer puntoPedido,
+        Integer loteOptimo,
+        Integer tiempoRevision,
+        Integer inventarioMaximo,
+        Integer demoraEntrega
+) {
+}
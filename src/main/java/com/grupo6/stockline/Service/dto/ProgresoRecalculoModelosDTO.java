@@ -0,0 +1,17 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Estado del recálculo masivo de modelos; procesados = escritos + con error, sobre el total de artículos con modelo
+public record ProgresoRecalculoModelosDTO(
+        String estado,
+        int total,
+        int procesados,
+        int calculados,
+        int errores,
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        List<String> detalleErrores
+) {
+}
@@ -0,0 +1,19 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.time.LocalDateTime;
+
+// Resultado de una corrida del pronóstico nocturno en arreglos paralelos: la posición i es el artículo idsArticulo[i]
+public record PronosticoLoteDTO(
+        long[] idsArticulo,
+        double[] demandaPromedioDiaria,
+        double[] desviacionEstandar,
+        int[] diasConVentas,
+        double[] pronosticoDiario,
+        double[] pronostico30Dias,
+        String[] modeloPronostico,
+        LocalDateTime fechaCalculo
+) {
+    public int tamano() {
+        return idsArticulo.length;
+    }
+}
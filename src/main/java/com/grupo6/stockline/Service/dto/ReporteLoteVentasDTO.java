@@ -0,0 +1,12 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.List;
+
+public record ReporteLoteVentasDTO(
+        int ticketsProcesados,
+        int ticketsRegistrados,
+        int ticketsRechazados,
+        long milisegundos,
+        List<ResultadoTicketDTO> resultados
+) {
+}
@@ -0,0 +1,26 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.List;
+
+// Resultado del optimizador de abastecimiento: pares evaluados, artículos con un proveedor más barato que el
+// predeterminado y sus recomendaciones ordenadas por ahorro anual
+public record ResultadoAbastecimientoDTO(
+        int pares,
+        int articulos,
+        int conMejora,
+        double ahorroTotal,
+        int aplicados,
+        List<Recomendacion> recomendaciones
+) {
+    // cgiActual y ahorro son null cuando el artículo no tiene un predeterminado con costos válidos
+    public record Recomendacion(
+            Long idArticulo,
+            Long idProveedorActual,
+            Double cgiActual,
+            Long idProveedorRecomendado,
+            double cgiRecomendado,
+            int loteOptimoRecomendado,
+            Double ahorro
+    ) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.grupo6.stockline.Service.dto;
+
+// Lo que habría pasado con la política si se hubiera aplicado a las ventas reales del período
+public record ResultadoBacktestDTO(
+        Long idArticulo,
+        PoliticaInventarioDTO politica,
+        long demanda,
+        long demandaAtendida,
+        double nivelServicio,
+        int diasConQuiebre,
+        int pedidos,
+        long unidadesPedidas,
+        double inventarioPromedio,
+        double costoAlmacenamiento,
+        double costoPedidos
+) {
+}
@@ -0,0 +1,19 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.List;
+
+// Resultado del detector de deriva: artículos analizados, con deriva y la lista de trabajo por prioridad
+public record ResultadoDerivaDTO(
+        int analizados,
+        int conDeriva,
+        int recalculados,
+        int errores,
+        List<Deriva> trabajos
+) {
+    public record Deriva(
+            Long idArticulo,
+            double deriva,
+            String causa
+    ) {
+    }
+}
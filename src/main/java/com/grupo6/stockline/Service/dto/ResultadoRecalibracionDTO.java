@@ -0,0 +1,9 @@
+package com.grupo6.stockline.Service.dto;
+
+public record ResultadoRecalibracionDTO(
+        int analizados,
+        int actualizados,
+        int recalculados,
+        int errores
+) {
+}
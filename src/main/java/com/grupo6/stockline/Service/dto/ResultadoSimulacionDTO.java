@@ -0,0 +1,21 @@
+package com.grupo6.stockline.Service.dto;
+
+import com.grupo6.stockline.Enum.ModeloInventario;
+
+// Promedios sobre las trayectorias simuladas de un año para la política vigente del artículo.
+// probabilidadQuiebre: fracción de trayectorias con al menos un día de quiebre; nivelServicioReal: demanda atendida / demanda
+public record ResultadoSimulacionDTO(
+        Long idArticulo,
+        ModeloInventario modeloInventario,
+        int trayectorias,
+        double probabilidadQuiebre,
+        double nivelServicioReal,
+        double diasConQuiebre,
+        double inventarioPromedio,
+        double pedidosPorAnio,
+        double costoAlmacenamiento,
+        double costoPedidos,
+        double costoCompra,
+        double costoTotal
+) {
+}
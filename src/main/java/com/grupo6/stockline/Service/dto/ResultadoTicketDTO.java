@@ -0,0 +1,18 @@
+package com.grupo6.stockline.Service.dto;
+
+public record ResultadoTicketDTO(
+        String ticket,
+        long linea,
+        boolean registrado,
+        Long idVenta,
+        Double totalVenta,
+        String error
+) {
+    public static ResultadoTicketDTO registrado(String ticket, long linea, Long idVenta, double totalVenta) {
+        return new ResultadoTicketDTO(ticket, linea, true, idVenta, totalVenta, null);
+    }
+
+    public static ResultadoTicketDTO rechazado(String ticket, long linea, String error) {
+        return new ResultadoTicketDTO(ticket, linea, false, null, null, error);
+    }
+}
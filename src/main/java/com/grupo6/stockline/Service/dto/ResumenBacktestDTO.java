@@ -0,0 +1,19 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Totales del catálogo y los artículos con más días de quiebre (como mucho el límite pedido)
+public record ResumenBacktestDTO(
+        LocalDate desde,
+        LocalDate hasta,
+        int articulos,
+        long lineasProcesadas,
+        double nivelServicio,
+        long diasConQuiebre,
+        double costoAlmacenamiento,
+        double costoPedidos,
+        long milisegundos,
+        List<ResultadoBacktestDTO> resultados
+) {
+}
@@ -0,0 +1,14 @@
+package com.grupo6.stockline.Service.dto;
+
+import java.util.List;
+
+public record TicketLoteDTO(
+        String ticket,
+        List<LineaTicketDTO> detalles
+) {
+    public record LineaTicketDTO(
+            Long articulo,
+            Integer cantidad
+    ) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.grupo6.stockline.Service.evento;
+
+// Cambiaron los datos propios del artículo (demanda, costos, modelo, proveedor predeterminado)
+public record ArticuloActualizadoEvent(
+        Long idArticulo
+) {
+}
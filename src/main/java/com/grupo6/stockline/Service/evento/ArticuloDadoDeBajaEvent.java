@@ -0,0 +1,6 @@
+package com.grupo6.stockline.Service.evento;
+
+public record ArticuloDadoDeBajaEvent(
+        Long idArticulo
+) {
+}
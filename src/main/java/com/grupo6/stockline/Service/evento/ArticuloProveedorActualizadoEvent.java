@@ -0,0 +1,8 @@
+package com.grupo6.stockline.Service.evento;
+
+// Cambiaron los costos o la demora de una asociación artículo-proveedor
+public record ArticuloProveedorActualizadoEvent(
+        Long idArticulo,
+        Long idProveedor
+) {
+}
@@ -0,0 +1,8 @@
+package com.grupo6.stockline.Service.evento;
+
+// Se publica al cerrar los datos de modelo anteriores y guardar los nuevos datos vigentes del artículo
+public record ModeloInventarioCalculadoEvent(
+        Long idArticulo,
+        Integer stockSeguridad
+) {
+}
@@ -0,0 +1,9 @@
+package com.grupo6.stockline.Service.evento;
+
+import java.util.Map;
+
+// Se publica al registrar movimientos de stock (venta, ajuste o compra) con el delta con signo de cada artículo
+public record StockModificadoEvent(
+        Map<Long, Integer> deltaPorArticulo
+) {
+}
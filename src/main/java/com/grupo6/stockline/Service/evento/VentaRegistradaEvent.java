@@ -0,0 +1,12 @@
+package com.grupo6.stockline.Service.evento;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Se publica dentro de la transacción de crearVenta; los listeners lo reciben al confirmarse
+public record VentaRegistradaEvent(
+        Long idVenta,
+        LocalDateTime fechaVenta,
+        Map<Long, Integer> cantidadPorArticulo
+) {
+}
@@ -0,0 +1,54 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+// Croston para demanda intermitente: suaviza por separado el tamaño de cada venta y el intervalo entre ventas.
+// La variante corregida (CrostonSba) aplica el ajuste de Syntetos-Boylan, que quita el sesgo hacia arriba del original.
+@Component
+public class Croston implements EstrategiaPronostico {
+
+    private static final double ALPHA = 0.1;
+
+    private final boolean corregido;
+
+    public Croston() {
+        this(false);
+    }
+
+    protected Croston(boolean corregido) {
+        this.corregido = corregido;
+    }
+
+    @Override
+    public String nombre() {
+        return corregido ? "CROSTON_SBA" : "CROSTON";
+    }
+
+    @Override
+    public void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros) {
+        double factor = corregido ? 1 - ALPHA / 2 : 1;
+        double tamano = Double.NaN;
+        double intervalo = Double.NaN;
+        int diasDesdeUltima = 0;
+
+        for (int t = 0; t < n; t++) {
+            diasDesdeUltima++;
+            // Antes de la primera venta el modelo pronostica cero
+            ajustados[t] = Double.isNaN(tamano) ? (t > 0 ? 0 : Double.NaN) : factor * tamano / intervalo;
+            if (serie[t] > 0) {
+                if (Double.isNaN(tamano)) {
+                    tamano = serie[t];
+                    intervalo = diasDesdeUltima;
+                } else {
+                    tamano = ALPHA * serie[t] + (1 - ALPHA) * tamano;
+                    intervalo = ALPHA * diasDesdeUltima + (1 - ALPHA) * intervalo;
+                }
+                diasDesdeUltima = 0;
+            }
+        }
+        double siguiente = Double.isNaN(tamano) ? 0 : factor * tamano / intervalo;
+        for (int h = 0; h < futuros.length; h++) {
+            futuros[h] = siguiente;
+        }
+    }
+}
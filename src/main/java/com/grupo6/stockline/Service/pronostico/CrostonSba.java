@@ -0,0 +1,11 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class CrostonSba extends Croston {
+
+    public CrostonSba() {
+        super(true);
+    }
+}
@@ -0,0 +1,13 @@
+package com.grupo6.stockline.Service.pronostico;
+
+// Modelo de pronóstico sobre una serie diaria de demanda (un valor por día, ceros incluidos).
+// Las implementaciones no guardan estado: una misma instancia se usa desde varios hilos.
+public interface EstrategiaPronostico {
+
+    String nombre();
+
+    // ajustados[t] es el pronóstico un paso adelante de serie[t] usando sólo serie[0..t) (NaN si el modelo
+    // todavía no tiene datos suficientes); futuros[h] es el pronóstico del día n + h
+    void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros);
+
+}
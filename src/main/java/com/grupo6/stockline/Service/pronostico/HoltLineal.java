@@ -0,0 +1,46 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+// Suavizado doble de Holt: nivel más tendencia lineal. Los pronósticos negativos se recortan a cero.
+@Component
+public class HoltLineal implements EstrategiaPronostico {
+
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.1;
+
+    @Override
+    public String nombre() {
+        return "HOLT";
+    }
+
+    @Override
+    public void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros) {
+        if (n < 2) {
+            for (int t = 0; t < n; t++) {
+                ajustados[t] = Double.NaN;
+            }
+            double siguiente = n > 0 ? serie[0] : 0;
+            for (int h = 0; h < futuros.length; h++) {
+                futuros[h] = siguiente;
+            }
+            return;
+        }
+
+        double nivel = serie[0];
+        double tendencia = serie[1] - serie[0];
+        ajustados[0] = Double.NaN;
+        ajustados[1] = Double.NaN;
+        for (int t = 1; t < n; t++) {
+            if (t > 1) {
+                ajustados[t] = Math.max(0, nivel + tendencia);
+            }
+            double nivelAnterior = nivel;
+            nivel = ALPHA * serie[t] + (1 - ALPHA) * (nivel + tendencia);
+            tendencia = BETA * (nivel - nivelAnterior) + (1 - BETA) * tendencia;
+        }
+        for (int h = 0; h < futuros.length; h++) {
+            futuros[h] = Math.max(0, nivel + (h + 1) * tendencia);
+        }
+    }
+}
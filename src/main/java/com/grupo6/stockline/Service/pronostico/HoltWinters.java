@@ -0,0 +1,58 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+// Holt-Winters aditivo con estacionalidad semanal. Necesita al menos dos semanas completas para inicializarse;
+// con menos historia no pronostica (ajustados en NaN) y el selector lo descarta.
+@Component
+public class HoltWinters implements EstrategiaPronostico {
+
+    private static final int PERIODO = 7;
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.05;
+    private static final double GAMMA = 0.2;
+
+    @Override
+    public String nombre() {
+        return "HOLT_WINTERS";
+    }
+
+    @Override
+    public void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros) {
+        if (n < 2 * PERIODO) {
+            for (int t = 0; t < n; t++) {
+                ajustados[t] = Double.NaN;
+            }
+            for (int h = 0; h < futuros.length; h++) {
+                futuros[h] = Double.NaN;
+            }
+            return;
+        }
+
+        double primeraSemana = 0;
+        double segundaSemana = 0;
+        for (int i = 0; i < PERIODO; i++) {
+            primeraSemana += serie[i];
+            segundaSemana += serie[PERIODO + i];
+        }
+        double nivel = primeraSemana / PERIODO;
+        double tendencia = (segundaSemana - primeraSemana) / (PERIODO * PERIODO);
+        double[] estacional = new double[PERIODO];
+        for (int i = 0; i < PERIODO; i++) {
+            estacional[i] = serie[i] - nivel;
+            ajustados[i] = Double.NaN;
+        }
+
+        for (int t = PERIODO; t < n; t++) {
+            int s = t % PERIODO;
+            ajustados[t] = Math.max(0, nivel + tendencia + estacional[s]);
+            double nivelAnterior = nivel;
+            nivel = ALPHA * (serie[t] - estacional[s]) + (1 - ALPHA) * (nivel + tendencia);
+            tendencia = BETA * (nivel - nivelAnterior) + (1 - BETA) * tendencia;
+            estacional[s] = GAMMA * (serie[t] - nivel) + (1 - GAMMA) * estacional[s];
+        }
+        for (int h = 0; h < futuros.length; h++) {
+            futuros[h] = Math.max(0, nivel + (h + 1) * tendencia + estacional[(n + h) % PERIODO]);
+        }
+    }
+}
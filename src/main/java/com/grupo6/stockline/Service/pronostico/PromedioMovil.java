@@ -0,0 +1,33 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+// Promedio de los últimos VENTANA días (o de los disponibles al comienzo de la serie)
+@Component
+public class PromedioMovil implements EstrategiaPronostico {
+
+    private static final int VENTANA = 7;
+
+    @Override
+    public String nombre() {
+        return "PROMEDIO_MOVIL";
+    }
+
+    @Override
+    public void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros) {
+        double suma = 0;
+        for (int t = 0; t < n; t++) {
+            int dias = Math.min(t, VENTANA);
+            ajustados[t] = dias > 0 ? suma / dias : Double.NaN;
+            suma += serie[t];
+            if (t >= VENTANA) {
+                suma -= serie[t - VENTANA];
+            }
+        }
+        int dias = Math.min(n, VENTANA);
+        double siguiente = dias > 0 ? suma / dias : 0;
+        for (int h = 0; h < futuros.length; h++) {
+            futuros[h] = siguiente;
+        }
+    }
+}
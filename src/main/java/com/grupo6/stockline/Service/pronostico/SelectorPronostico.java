@@ -0,0 +1,62 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Elige, para una serie, el modelo con menor error cuadrático medio en los últimos días de la serie
+// (pronósticos un paso adelante, cada uno hecho sólo con los datos anteriores). Un modelo que no llega
+// a pronosticar toda la ventana de evaluación queda descartado.
+@Component
+public class SelectorPronostico {
+
+    public record Eleccion(
+            String modelo,
+            double error,
+            double[] futuros
+    ) {
+    }
+
+    private final List<EstrategiaPronostico> estrategias;
+
+    public SelectorPronostico(List<EstrategiaPronostico> estrategias) {
+        this.estrategias = estrategias;
+    }
+
+    public Eleccion elegir(double[] serie, int n, int diasEvaluacion, int horizonte) {
+        double[] ajustados = new double[n];
+        double[] futuros = new double[horizonte];
+        double[] mejoresFuturos = new double[horizonte];
+        String mejorModelo = null;
+        double menorError = Double.POSITIVE_INFINITY;
+
+        // El primer día nunca tiene pronóstico: la evaluación empieza, como mínimo, en el segundo
+        int desde = Math.max(1, n - diasEvaluacion);
+        for (EstrategiaPronostico estrategia : estrategias) {
+            estrategia.pronosticar(serie, n, ajustados, futuros);
+
+            double error = errorCuadraticoMedio(serie, ajustados, desde, n);
+            if (error < menorError && horizonte > 0 && !Double.isNaN(futuros[0])) {
+                menorError = error;
+                mejorModelo = estrategia.nombre();
+                System.arraycopy(futuros, 0, mejoresFuturos, 0, horizonte);
+            }
+        }
+        return new Eleccion(mejorModelo, menorError, mejoresFuturos);
+    }
+
+    private static double errorCuadraticoMedio(double[] serie, double[] ajustados, int desde, int hasta) {
+        if (hasta <= desde) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double suma = 0;
+        for (int t = desde; t < hasta; t++) {
+            if (Double.isNaN(ajustados[t])) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double diferencia = serie[t] - ajustados[t];
+            suma += diferencia * diferencia;
+        }
+        return suma / (hasta - desde);
+    }
+}
@@ -0,0 +1,30 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.springframework.stereotype.Component;
+
+// Suavizado exponencial simple, el mismo alfa que usan las estadísticas del detalle del artículo
+@Component
+public class SuavizadoExponencial implements EstrategiaPronostico {
+
+    private static final double ALPHA = 0.3;
+
+    @Override
+    public String nombre() {
+        return "SUAVIZADO_SIMPLE";
+    }
+
+    @Override
+    public void pronosticar(double[] serie, int n, double[] ajustados, double[] futuros) {
+        double nivel = n > 0 ? serie[0] : 0;
+        if (n > 0) {
+            ajustados[0] = Double.NaN;
+        }
+        for (int t = 1; t < n; t++) {
+            ajustados[t] = nivel;
+            nivel = ALPHA * serie[t] + (1 - ALPHA) * nivel;
+        }
+        for (int h = 0; h < futuros.length; h++) {
+            futuros[h] = nivel;
+        }
+    }
+}
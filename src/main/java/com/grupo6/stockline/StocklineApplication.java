@@ -13,7 +13,9 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootApplication
 @EnableScheduling
@@ -104,6 +106,12 @@ public class StocklineApplication {
 			taladro.setTiempoRevision(30);
 			articuloRepo.save(taladro);
 
+			// stock_actual no se escribe con save: lo vendido en el historial se descuenta al final como delta
+			Map<Long, Integer> stockInicial = Map.of(
+					martillo.getId(), martillo.getStockActual(),
+					destornillador.getId(), destornillador.getStockActual(),
+					taladro.getId(), taladro.getStockActual());
+
 			// =========================================================
 			// ARTICULO - PROVEEDOR (ArticuloProveedor)
 			// =========================================================
@@ -278,9 +286,11 @@ public class StocklineApplication {
 				ventaRepo.save(ventaDia);
 			}
 
-			articuloRepo.save(martillo);
-			articuloRepo.save(destornillador);
-			articuloRepo.save(taladro);
+			Map<Long, Integer> vendido = new HashMap<>();
+			for (Articulo articulo : List.of(martillo, destornillador, taladro)) {
+				vendido.put(articulo.getId(), articulo.getStockActual() - stockInicial.get(articulo.getId()));
+			}
+			articuloRepo.aplicarDeltasStock(vendido);
 
 			System.out.println("===== DATOS DE PRUEBA COMPLETOS CARGADOS =====");
 		};
@@ -0,0 +1,40 @@
+package com.grupo6.stockline.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalculadoraModeloInventarioTests {
+
+    private static final double TOLERANCIA = 1e-4;
+
+    @Test
+    void inversaNormalCoincideConLosValoresDeTabla() {
+        assertEquals(0, CalculadoraModeloInventario.inversaNormal(0.5), TOLERANCIA);
+        assertEquals(1.6449, CalculadoraModeloInventario.inversaNormal(0.95), TOLERANCIA);
+        assertEquals(1.9600, CalculadoraModeloInventario.inversaNormal(0.975), TOLERANCIA);
+        // Colas: la aproximación usa otra rama por debajo de 0.02425 y por encima de 0.97575
+        assertEquals(2.3263, CalculadoraModeloInventario.inversaNormal(0.99), TOLERANCIA);
+        assertEquals(-3.0902, CalculadoraModeloInventario.inversaNormal(0.001), TOLERANCIA);
+    }
+
+    @Test
+    void inversaNormalEsSimetrica() {
+        for (double p : new double[]{0.001, 0.01, 0.1, 0.3, 0.45}) {
+            assertEquals(-CalculadoraModeloInventario.inversaNormal(p),
+                    CalculadoraModeloInventario.inversaNormal(1 - p), TOLERANCIA);
+        }
+    }
+
+    @Test
+    void inversaNormalRechazaProbabilidadesFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraModeloInventario.inversaNormal(0));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraModeloInventario.inversaNormal(1));
+    }
+
+    @Test
+    void sinNivelDeServicioUsaElNoventaYCincoPorCiento() {
+        assertEquals(CalculadoraModeloInventario.inversaNormal(0.95), CalculadoraModeloInventario.valorZ(null));
+    }
+}
@@ -0,0 +1,214 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.DetalleOrdenCompra;
+import com.grupo6.stockline.Entities.DetalleVenta;
+import com.grupo6.stockline.Entities.OrdenCompra;
+import com.grupo6.stockline.Entities.Venta;
+import com.grupo6.stockline.Enum.EstadoOrdenCompra;
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.OrdenCompraRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Los mismos casos con el descuento directo en la base y con el stock en memoria (volcado diferido)
+@SpringBootTest
+@ActiveProfiles("test")
+class DescuentoStockConcurrenteTests {
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 25;
+    private static final int STOCK_INICIAL = 300;
+
+    @Nested
+    @TestPropertySource(properties = "stockline.stock-memoria.habilitado=false")
+    class StockEnBase extends Casos {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "stockline.stock-memoria.habilitado=true")
+    class StockEnMemoria extends Casos {
+    }
+
+    abstract static class Casos {
+
+        @Autowired
+        private VentaService ventaService;
+        @Autowired
+        private ArticuloService articuloService;
+        @Autowired
+        private ArticuloRepository articuloRepository;
+        @Autowired
+        private OrdenCompraService ordenCompraService;
+        @Autowired
+        private OrdenCompraRepository ordenCompraRepository;
+        @Autowired
+        private StockEnMemoriaService stockEnMemoriaService;
+
+        @Test
+        void ventasYAjustesConcurrentesNuncaSobrevenden() throws Exception {
+            Long idArticulo = nuevoArticulo();
+
+            AtomicInteger unidadesDescontadas = new AtomicInteger();
+            correrEnParalelo(hilo -> {
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    int cantidad = 1 + (hilo + i) % 3;
+                    try {
+                        if (i % 5 == 0) {
+                            articuloService.realizarAjuste(idArticulo, cantidad);
+                        } else {
+                            ventaService.crearVenta(nuevaVenta(idArticulo, cantidad));
+                        }
+                        unidadesDescontadas.addAndGet(cantidad);
+                    } catch (Exception e) {
+                        // stock insuficiente: la operación se rechaza sin descontar nada
+                    }
+                }
+            });
+
+            int stockFinal = stockConfirmado(idArticulo);
+            assertTrue(stockFinal >= 0, "El stock nunca debe quedar negativo");
+            assertEquals(STOCK_INICIAL - unidadesDescontadas.get(), stockFinal);
+        }
+
+        @Test
+        void recepcionesDeComprasConcurrentesConVentasNoPierdenUnidades() throws Exception {
+            Long idArticulo = nuevoArticulo();
+            List<Long> ordenes = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                ordenes.add(nuevaOrdenEnviada(idArticulo, 10));
+            }
+
+            AtomicInteger unidadesVendidas = new AtomicInteger();
+            correrEnParalelo(hilo -> {
+                // La mitad de los hilos recibe dos órdenes a mitad de sus ventas
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    if (hilo % 2 == 0 && i == OPERACIONES_POR_HILO / 2) {
+                        ordenCompraService.finalizarOrdenCompra(ordenes.get(hilo));
+                        ordenCompraService.finalizarOrdenCompra(ordenes.get(hilo + 1));
+                    }
+                    try {
+                        ventaService.crearVenta(nuevaVenta(idArticulo, 1));
+                        unidadesVendidas.incrementAndGet();
+                    } catch (Exception e) {
+                        // stock insuficiente: la venta se rechaza sin descontar nada
+                    }
+                }
+            });
+
+            assertEquals(STOCK_INICIAL + ordenes.size() * 10 - unidadesVendidas.get(), stockConfirmado(idArticulo));
+        }
+
+        @Test
+        void edicionesDelArticuloConcurrentesConVentasNoPisanElStock() throws Exception {
+            Long idArticulo = nuevoArticulo();
+
+            AtomicInteger unidadesVendidas = new AtomicInteger();
+            correrEnParalelo(hilo -> {
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    if (hilo % 2 == 0) {
+                        Articulo edicion = new Articulo();
+                        edicion.setNombreArticulo("Editado " + hilo + "-" + i);
+                        edicion.setPrecioVenta(100.0 + i);
+                        articuloService.update(idArticulo, edicion);
+                    } else {
+                        try {
+                            ventaService.crearVenta(nuevaVenta(idArticulo, 1));
+                            unidadesVendidas.incrementAndGet();
+                        } catch (Exception e) {
+                            // stock insuficiente: la venta se rechaza sin descontar nada
+                        }
+                    }
+                }
+            });
+
+            assertEquals(STOCK_INICIAL - unidadesVendidas.get(), stockConfirmado(idArticulo));
+        }
+
+        // Con el stock en memoria se vuelca lo pendiente y el contador tiene que coincidir con la base
+        private int stockConfirmado(Long idArticulo) {
+            if (stockEnMemoriaService.estaHabilitado()) {
+                stockEnMemoriaService.volcarPendientes();
+                int stockBase = articuloRepository.obtenerStockActual(idArticulo);
+                assertEquals(stockEnMemoriaService.consultarStock(idArticulo), stockBase);
+                return stockBase;
+            }
+            return articuloRepository.obtenerStockActual(idArticulo);
+        }
+
+        private void correrEnParalelo(TareaHilo tarea) throws Exception {
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                final int hilo = h;
+                tareas.add(pool.submit(() -> {
+                    largada.await();
+                    tarea.correr(hilo);
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> futura : tareas) {
+                futura.get();
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        private Long nuevoArticulo() {
+            Articulo articulo = new Articulo();
+            articulo.setNombreArticulo("Artículo de prueba concurrente");
+            articulo.setPrecioVenta(100.0);
+            articulo.setStockActual(STOCK_INICIAL);
+            return articuloRepository.save(articulo).getId();
+        }
+
+        private Long nuevaOrdenEnviada(Long idArticulo, int cantidad) {
+            Articulo referencia = new Articulo();
+            referencia.setId(idArticulo);
+
+            OrdenCompra orden = new OrdenCompra();
+            orden.setEstadoOrdenCompra(EstadoOrdenCompra.ENVIADA);
+            DetalleOrdenCompra detalle = new DetalleOrdenCompra();
+            detalle.setArticulo(referencia);
+            detalle.setCantidad(cantidad);
+            detalle.setOrdenCompra(orden);
+            orden.setDetalleOrdenCompra(new ArrayList<>(List.of(detalle)));
+            return ordenCompraRepository.save(orden).getId();
+        }
+
+        private Venta nuevaVenta(Long idArticulo, int cantidad) {
+            Articulo referencia = new Articulo();
+            referencia.setId(idArticulo);
+
+            DetalleVenta detalle = new DetalleVenta();
+            detalle.setArticulo(referencia);
+            detalle.setCantidad(cantidad);
+
+            Venta venta = new Venta();
+            venta.getDetalleVenta().add(detalle);
+            return venta;
+        }
+    }
+
+    private interface TareaHilo {
+        void correr(int hilo) throws Exception;
+    }
+}
@@ -0,0 +1,38 @@
+package com.grupo6.stockline.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PoliticaInventarioDiariaTests {
+
+    @Test
+    void atiendeHastaLoQueHayEnMano() {
+        assertEquals(5, PoliticaInventarioDiaria.atendida(5, 8));
+        assertEquals(3, PoliticaInventarioDiaria.atendida(5, 3));
+        assertEquals(0, PoliticaInventarioDiaria.atendida(5, 0));
+    }
+
+    @Test
+    void loteFijoPideElLoteAlLlegarAlPuntoDePedido() {
+        assertEquals(0, PoliticaInventarioDiaria.cantidadAPedir(true, 10, 50, 0, 0, 3, 11));
+        assertEquals(50, PoliticaInventarioDiaria.cantidadAPedir(true, 10, 50, 0, 0, 3, 10));
+        assertEquals(50, PoliticaInventarioDiaria.cantidadAPedir(true, 10, 50, 0, 0, 3, 2));
+    }
+
+    @Test
+    void intervaloFijoCompletaHastaElMaximoSoloAlCerrarCadaRevision() {
+        // Revisión cada 7 días: se pide al cierre de los días 6, 13, ...
+        assertEquals(0, PoliticaInventarioDiaria.cantidadAPedir(false, 0, 0, 7, 40, 5, 12));
+        assertEquals(28, PoliticaInventarioDiaria.cantidadAPedir(false, 0, 0, 7, 40, 6, 12));
+        assertEquals(28, PoliticaInventarioDiaria.cantidadAPedir(false, 0, 0, 7, 40, 13, 12));
+        // Con la posición por encima del máximo no se pide
+        assertEquals(0, PoliticaInventarioDiaria.cantidadAPedir(false, 0, 0, 7, 40, 6, 45));
+    }
+
+    @Test
+    void loPedidoLlegaComoProntoAlDiaSiguiente() {
+        assertEquals(8, PoliticaInventarioDiaria.diaLlegada(5, 3));
+        assertEquals(6, PoliticaInventarioDiaria.diaLlegada(5, 0));
+    }
+}
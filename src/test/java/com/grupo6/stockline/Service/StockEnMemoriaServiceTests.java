@@ -0,0 +1,112 @@
+package com.grupo6.stockline.Service;
+
+import com.grupo6.stockline.Entities.Articulo;
+import com.grupo6.stockline.Entities.DetalleVenta;
+import com.grupo6.stockline.Entities.MovimientoStock;
+import com.grupo6.stockline.Entities.Venta;
+import com.grupo6.stockline.Enum.TipoMovimientoStock;
+import com.grupo6.stockline.Repositories.ArticuloRepository;
+import com.grupo6.stockline.Repositories.MovimientoStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Rollback, recuperación tras una caída y recepciones del stock en memoria; la concurrencia se prueba en
+// DescuentoStockConcurrenteTests con el mismo flag
+@SpringBootTest(properties = "stockline.stock-memoria.habilitado=true")
+@ActiveProfiles("test")
+class StockEnMemoriaServiceTests {
+
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private MovimientoStockService movimientoStockService;
+    @Autowired
+    private StockEnMemoriaService stockEnMemoriaService;
+    @Autowired
+    private ArticuloRepository articuloRepository;
+    @Autowired
+    private MovimientoStockRepository movimientoStockRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void ventaRechazadaDevuelveLoReservadoDeLasOtrasLineas() throws Exception {
+        Long conStock = nuevoArticulo(10);
+        Long sinStock = nuevoArticulo(1);
+
+        // La primera línea se reserva y la segunda no alcanza: el rollback tiene que devolver la primera
+        Venta venta = new Venta();
+        venta.getDetalleVenta().add(detalle(conStock, 4));
+        venta.getDetalleVenta().add(detalle(sinStock, 5));
+        assertThrows(Exception.class, () -> ventaService.crearVenta(venta));
+
+        assertEquals(10, stockEnMemoriaService.consultarStock(conStock));
+        assertEquals(1, stockEnMemoriaService.consultarStock(sinStock));
+        stockEnMemoriaService.volcarPendientes();
+        assertEquals(10, articuloRepository.obtenerStockActual(conStock));
+    }
+
+    @Test
+    void reconstruirAplicaLosMovimientosConfirmadosSinVolcar() {
+        Long idArticulo = nuevoArticulo(50);
+
+        // Como tras una caída: la venta se confirmó (movimiento con volcado = false) pero no llegó a la tabla articulo
+        Articulo referencia = new Articulo();
+        referencia.setId(idArticulo);
+        MovimientoStock movimiento = new MovimientoStock(-7, null, TipoMovimientoStock.VENTA, false, referencia);
+        movimiento.setFechaAlta(LocalDateTime.now());
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> movimientoStockRepository.insertarEnLote(List.of(movimiento)));
+
+        stockEnMemoriaService.reconstruir();
+
+        assertEquals(43, articuloRepository.obtenerStockActual(idArticulo));
+        assertEquals(43, stockEnMemoriaService.consultarStock(idArticulo));
+        assertFalse(movimientoStockRepository.leerNoVolcados().deltaPorArticulo().containsKey(idArticulo));
+    }
+
+    @Test
+    void recepcionDeUnArticuloSinContadorSeSumaUnaSolaVez() {
+        Long idArticulo = nuevoArticulo(20);
+
+        // Sin consultarStock previo: el contador del artículo todavía no existe cuando llega la recepción
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockEnMemoriaService.reponer(idArticulo, 10);
+            movimientoStockService.registrar(TipoMovimientoStock.COMPRA, null, Map.of(idArticulo, 10));
+        });
+
+        assertEquals(30, stockEnMemoriaService.consultarStock(idArticulo));
+        stockEnMemoriaService.volcarPendientes();
+        assertEquals(30, articuloRepository.obtenerStockActual(idArticulo));
+    }
+
+    private Long nuevoArticulo(int stock) {
+        Articulo articulo = new Articulo();
+        articulo.setNombreArticulo("Artículo de prueba stock en memoria");
+        articulo.setPrecioVenta(100.0);
+        articulo.setStockActual(stock);
+        return articuloRepository.save(articulo).getId();
+    }
+
+    private DetalleVenta detalle(Long idArticulo, int cantidad) {
+        Articulo referencia = new Articulo();
+        referencia.setId(idArticulo);
+
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setArticulo(referencia);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+}
@@ -0,0 +1,129 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Los valores esperados se calcularon a mano con los alfas de cada modelo
+class EstrategiasPronosticoTests {
+
+    private static final double TOLERANCIA = 1e-9;
+
+    @Test
+    void serieEnCeroPronosticaCeroEnTodosLosModelos() {
+        double[] serie = new double[21];
+        for (EstrategiaPronostico estrategia : List.of(new Croston(), new CrostonSba(), new HoltLineal(),
+                new HoltWinters(), new PromedioMovil(), new SuavizadoExponencial())) {
+            double[] futuros = pronosticar(estrategia, serie, new double[serie.length], 3);
+            assertArrayEquals(new double[]{0, 0, 0}, futuros, TOLERANCIA, estrategia.nombre());
+        }
+    }
+
+    @Test
+    void crostonSuavizaTamanoEIntervaloPorSeparado() {
+        // Venta de 4 al tercer día y de 2 dos días después: tamaño 0.1*2 + 0.9*4 = 3.8, intervalo 0.1*2 + 0.9*3 = 2.9
+        double[] serie = {0, 0, 4, 0, 2};
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new Croston(), serie, ajustados, 2);
+
+        assertTrue(Double.isNaN(ajustados[0]));
+        assertEquals(0, ajustados[1], TOLERANCIA);
+        assertEquals(0, ajustados[2], TOLERANCIA);
+        assertEquals(4.0 / 3, ajustados[3], TOLERANCIA);
+        assertEquals(4.0 / 3, ajustados[4], TOLERANCIA);
+        assertArrayEquals(new double[]{3.8 / 2.9, 3.8 / 2.9}, futuros, TOLERANCIA);
+    }
+
+    @Test
+    void crostonSbaAplicaLaCorreccionDeSyntetosBoylan() {
+        double[] serie = {0, 0, 4, 0, 2};
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new CrostonSba(), serie, ajustados, 1);
+
+        assertEquals(0.95 * 4.0 / 3, ajustados[3], TOLERANCIA);
+        assertEquals(0.95 * 3.8 / 2.9, futuros[0], TOLERANCIA);
+    }
+
+    @Test
+    void holtLinealSigueUnaTendenciaExacta() {
+        double[] serie = {2, 4, 6, 8, 10, 12};
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new HoltLineal(), serie, ajustados, 2);
+
+        assertTrue(Double.isNaN(ajustados[0]));
+        assertTrue(Double.isNaN(ajustados[1]));
+        for (int t = 2; t < serie.length; t++) {
+            assertEquals(serie[t], ajustados[t], TOLERANCIA);
+        }
+        assertArrayEquals(new double[]{14, 16}, futuros, TOLERANCIA);
+    }
+
+    @Test
+    void holtLinealRecortaLosPronosticosNegativos() {
+        double[] futuros = pronosticar(new HoltLineal(), new double[]{10, 5}, new double[2], 2);
+        assertArrayEquals(new double[]{0, 0}, futuros, TOLERANCIA);
+    }
+
+    @Test
+    void holtWintersSinDosSemanasNoPronostica() {
+        double[] serie = new double[13];
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new HoltWinters(), serie, ajustados, 2);
+
+        for (double ajustado : ajustados) {
+            assertTrue(Double.isNaN(ajustado));
+        }
+        assertTrue(Double.isNaN(futuros[0]));
+    }
+
+    @Test
+    void holtWintersReproduceUnPatronSemanalSinTendencia() {
+        double[] semana = {1, 2, 3, 4, 5, 6, 7};
+        double[] serie = new double[28];
+        for (int t = 0; t < serie.length; t++) {
+            serie[t] = semana[t % 7];
+        }
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new HoltWinters(), serie, ajustados, 3);
+
+        for (int t = 7; t < serie.length; t++) {
+            assertEquals(serie[t], ajustados[t], TOLERANCIA);
+        }
+        assertArrayEquals(new double[]{1, 2, 3}, futuros, TOLERANCIA);
+    }
+
+    @Test
+    void promedioMovilUsaLosUltimosSieteDias() {
+        double[] serie = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new PromedioMovil(), serie, ajustados, 1);
+
+        assertTrue(Double.isNaN(ajustados[0]));
+        assertEquals(1, ajustados[1], TOLERANCIA);
+        assertEquals(2, ajustados[3], TOLERANCIA);
+        assertEquals(5, ajustados[8], TOLERANCIA);
+        assertEquals(7, futuros[0], TOLERANCIA);
+    }
+
+    @Test
+    void suavizadoExponencialPonderaConAlfa() {
+        double[] serie = {10, 0, 10};
+        double[] ajustados = new double[serie.length];
+        double[] futuros = pronosticar(new SuavizadoExponencial(), serie, ajustados, 1);
+
+        assertTrue(Double.isNaN(ajustados[0]));
+        assertEquals(10, ajustados[1], TOLERANCIA);
+        assertEquals(7, ajustados[2], TOLERANCIA);
+        assertEquals(7.9, futuros[0], TOLERANCIA);
+    }
+
+    private static double[] pronosticar(EstrategiaPronostico estrategia, double[] serie, double[] ajustados, int horizonte) {
+        double[] futuros = new double[horizonte];
+        estrategia.pronosticar(serie, serie.length, ajustados, futuros);
+        return futuros;
+    }
+}
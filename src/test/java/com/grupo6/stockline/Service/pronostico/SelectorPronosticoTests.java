@@ -0,0 +1,50 @@
+package com.grupo6.stockline.Service.pronostico;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SelectorPronosticoTests {
+
+    private final SelectorPronostico selector = new SelectorPronostico(List.of(new Croston(), new CrostonSba(),
+            new HoltLineal(), new HoltWinters(), new PromedioMovil(), new SuavizadoExponencial()));
+
+    @Test
+    void eligeElModeloSinErrorSobreUnPatronSemanal() {
+        double[] semana = {1, 2, 3, 4, 5, 6, 7};
+        double[] serie = new double[28];
+        for (int t = 0; t < serie.length; t++) {
+            serie[t] = semana[t % 7];
+        }
+
+        SelectorPronostico.Eleccion eleccion = selector.elegir(serie, serie.length, 14, 2);
+
+        assertEquals("HOLT_WINTERS", eleccion.modelo());
+        assertEquals(0, eleccion.error(), 1e-9);
+        assertArrayEquals(new double[]{1, 2}, eleccion.futuros(), 1e-9);
+    }
+
+    @Test
+    void descartaHoltWintersConMenosDeDosSemanas() {
+        // Con 13 días Holt-Winters no pronostica (NaN) y, aunque la serie es semanal, no puede ganar
+        double[] serie = {1, 2, 3, 4, 5, 6, 7, 1, 2, 3, 4, 5, 6};
+        SelectorPronostico soloDos = new SelectorPronostico(List.of(new HoltWinters(), new SuavizadoExponencial()));
+
+        SelectorPronostico.Eleccion eleccion = soloDos.elegir(serie, serie.length, 7, 1);
+
+        assertEquals("SUAVIZADO_SIMPLE", eleccion.modelo());
+    }
+
+    @Test
+    void sinModeloQueCubraLaEvaluacionNoEligeNinguno() {
+        SelectorPronostico soloHoltWinters = new SelectorPronostico(List.of(new HoltWinters()));
+
+        SelectorPronostico.Eleccion eleccion = soloHoltWinters.elegir(new double[10], 10, 7, 1);
+
+        assertNull(eleccion.modelo());
+    }
+}